@@ -0,0 +1,115 @@
+package com.assignment.benchmarks;
+
+import com.assignment.assignment1.CustomBlockingBuffer;
+import com.assignment.assignment1.LockFreeRingBuffer;
+import com.assignment.assignment1.SharedBuffer;
+import com.assignment.assignment1.ShardedBuffer;
+import com.assignment.assignment1.SplitLockBlockingBuffer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Minimal view of a bounded producer/consumer handoff.
+ * <p>
+ * Lets the benchmarks drive every {@link SharedBuffer} implementation and the
+ * JDK's {@link ArrayBlockingQueue} baseline through exactly the same harness.
+ */
+interface Handoff {
+
+    void put(Integer item) throws InterruptedException;
+
+    /**
+     * @return The next item, or null once all producers are done and the handoff is drained.
+     */
+    Integer take() throws InterruptedException;
+
+    /**
+     * Called once, after every producer has finished.
+     *
+     * @param consumers The number of consumers that must be released.
+     */
+    void done(int consumers) throws InterruptedException;
+
+    /**
+     * @param impl     One of "monitor", "splitlock", "lockfree", "sharded" or "abq".
+     * @param capacity The buffer capacity.
+     */
+    static Handoff create(String impl, int capacity) {
+        switch (impl) {
+            case "monitor":   return new BufferHandoff(new CustomBlockingBuffer<>(capacity));
+            case "splitlock": return new BufferHandoff(new SplitLockBlockingBuffer<>(capacity));
+            case "lockfree":  return new BufferHandoff(new LockFreeRingBuffer<>(capacity));
+            case "sharded":   return new BufferHandoff(newSharded(capacity));
+            case "abq":       return new QueueHandoff(new ArrayBlockingQueue<>(capacity));
+            default: throw new IllegalArgumentException("Unknown buffer implementation: " + impl);
+        }
+    }
+
+    // Up to one shard per core, splitting the requested capacity between them so the whole
+    // buffer holds as many items as the other implementations (exactly, for power-of-two capacities;
+    // at capacity 1 that means a single shard)
+    private static ShardedBuffer<Integer> newSharded(int capacity) {
+        int shards = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), capacity));
+        return new ShardedBuffer<>(shards, capacity / shards);
+    }
+
+    /**
+     * Adapter for the assignment's SharedBuffer contract (setDone + null on drain).
+     */
+    final class BufferHandoff implements Handoff {
+        private final SharedBuffer<Integer> buffer;
+
+        BufferHandoff(SharedBuffer<Integer> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void put(Integer item) throws InterruptedException {
+            buffer.produce(item);
+        }
+
+        @Override
+        public Integer take() throws InterruptedException {
+            return buffer.consume();
+        }
+
+        @Override
+        public void done(int consumers) {
+            buffer.setDone(true);
+        }
+    }
+
+    /**
+     * Adapter for JDK blocking queues, which have no completion flag:
+     * one poison pill per consumer ends the run.
+     */
+    final class QueueHandoff implements Handoff {
+        // Benchmark items are never negative, so -1 cannot collide with real data
+        private static final int POISON = -1;
+
+        private final BlockingQueue<Integer> queue;
+
+        QueueHandoff(BlockingQueue<Integer> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void put(Integer item) throws InterruptedException {
+            queue.put(item);
+        }
+
+        @Override
+        public Integer take() throws InterruptedException {
+            Integer item = queue.take();
+            return item == POISON ? null : item;
+        }
+
+        @Override
+        public void done(int consumers) throws InterruptedException {
+            for (int i = 0; i < consumers; i++) {
+                queue.put(POISON);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.assignment.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Moves a fixed number of items from P producer threads to C consumer threads.
+ * <p>
+ * Items are preboxed once, so the measurement covers the handoff and not
+ * {@code Integer} allocation. When timing is enabled, each producer stamps
+ * {@code System.nanoTime()} into a shared array right before handing item i
+ * over, and the consumer that receives it stores the elapsed time. The buffer's
+ * own happens-before edge makes the stamp visible to the consumer, and every
+ * index is written by exactly one thread, so no extra synchronization is needed.
+ */
+final class HandoffHarness implements AutoCloseable {
+
+    private final int producers;
+    private final int consumers;
+    private final int items;
+    private final ExecutorService pool;
+    private final Integer[] values;
+    private final long[] sendTimes;
+    private final long[] latencies;
+
+    /**
+     * @param topology "P:C", e.g. "4:4" for four producers and four consumers.
+     * @param items    Items moved per run; must be divisible by the producer count.
+     */
+    HandoffHarness(String topology, int items) {
+        String[] parts = topology.split(":");
+        this.producers = Integer.parseInt(parts[0]);
+        this.consumers = Integer.parseInt(parts[1]);
+        if (items % producers != 0) {
+            throw new IllegalArgumentException(items + " items cannot be split across " + producers + " producers");
+        }
+        this.items = items;
+        this.pool = Executors.newFixedThreadPool(producers + consumers);
+        this.values = new Integer[items];
+        for (int i = 0; i < items; i++) {
+            values[i] = i;
+        }
+        this.sendTimes = new long[items];
+        this.latencies = new long[items];
+    }
+
+    int consumers() {
+        return consumers;
+    }
+
+    /**
+     * Runs one complete transfer through the handoff.
+     *
+     * @param handoff A fresh handoff (completion is one-shot).
+     * @param timed   Whether to record per-item handoff latency.
+     * @return The sum of all consumed values, to be sunk by the benchmark.
+     */
+    long run(Handoff handoff, boolean timed) throws Exception {
+        int perProducer = items / producers;
+        List<Future<?>> producerTasks = new ArrayList<>(producers);
+        List<Future<Long>> consumerTasks = new ArrayList<>(consumers);
+
+        for (int c = 0; c < consumers; c++) {
+            consumerTasks.add(pool.submit(() -> {
+                long sum = 0;
+                Integer item;
+                while ((item = handoff.take()) != null) {
+                    int index = item;
+                    if (timed) {
+                        latencies[index] = System.nanoTime() - sendTimes[index];
+                    }
+                    sum += index;
+                }
+                return sum;
+            }));
+        }
+        for (int p = 0; p < producers; p++) {
+            int from = p * perProducer;
+            producerTasks.add(pool.submit(() -> {
+                for (int i = from; i < from + perProducer; i++) {
+                    if (timed) {
+                        sendTimes[i] = System.nanoTime();
+                    }
+                    handoff.put(values[i]);
+                }
+                return null;
+            }));
+        }
+
+        // Completion is only signalled once every producer is finished
+        for (Future<?> task : producerTasks) {
+            task.get();
+        }
+        handoff.done(consumers);
+
+        long sum = 0;
+        for (Future<Long> task : consumerTasks) {
+            sum += task.get();
+        }
+        return sum;
+    }
+
+    /**
+     * Adds the latencies of the last timed run to the histogram.
+     */
+    void recordLatencies(LatencyHistogram histogram) {
+        for (long latency : latencies) {
+            histogram.record(latency);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
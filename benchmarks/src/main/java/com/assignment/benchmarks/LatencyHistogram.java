@@ -0,0 +1,75 @@
+package com.assignment.benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond latencies.
+ * <p>
+ * Every power of two is split into 32 linear sub-buckets, which bounds the
+ * relative error of a reported percentile to about 3% while keeping the whole
+ * histogram in a 15 KB array. Not thread-safe.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[64 << SUB_BITS];
+    private long total = 0;
+
+    void record(long nanos) {
+        counts[index(Math.max(nanos, 0))]++;
+        total++;
+    }
+
+    long count() {
+        return total;
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    /**
+     * @param quantile A value in [0, 1], e.g. 0.99.
+     * @return The lower bound of the bucket holding that quantile, in nanoseconds.
+     */
+    long percentile(double quantile) {
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return lowerBound(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return A one-line p50/p99/p999 summary in microseconds.
+     */
+    String summary() {
+        return String.format("handoff latency (n=%d): p50=%.2f us, p99=%.2f us, p999=%.2f us",
+                total, percentile(0.50) / 1e3, percentile(0.99) / 1e3, percentile(0.999) / 1e3);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BITS) + SUB_BITS - 1;
+        long sub = index & (SUB_BUCKETS - 1);
+        return (1L << exponent) | (sub << (exponent - SUB_BITS));
+    }
+}
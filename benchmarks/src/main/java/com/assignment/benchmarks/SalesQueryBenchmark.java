@@ -0,0 +1,76 @@
+package com.assignment.benchmarks;
+
+import com.assignment.assignment2.SalesAnalysisService;
+import com.assignment.assignment2.SalesRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated region filters and category groupings on the same dataset, scanning vs indexed.
+ * <p>
+ * The dataset is synthetic: {@code rows} sales spread evenly over {@value #REGIONS}
+ * regions and {@value #CATEGORIES} categories. The index is built during setup, so
+ * the measurement only shows the steady state of a service that is queried many times.
+ * <p>
+ * Run with: {@code mvn -f benchmarks/pom.xml package exec:exec -Djmh.args=SalesQueryBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SalesQueryBenchmark {
+
+    static final int REGIONS = 8;
+    static final int CATEGORIES = 16;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private SalesAnalysisService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<SalesRecord> sales = new ArrayList<>(rows);
+        for (int id = 0; id < rows; id++) {
+            sales.add(new SalesRecord(id, start.plusDays(random.nextInt(365)),
+                    "Category" + random.nextInt(CATEGORIES), "Product" + random.nextInt(100),
+                    "Region" + random.nextInt(REGIONS), 1 + random.nextInt(100_000) / 100.0));
+        }
+        service = new SalesAnalysisService(sales, indexed);
+        service.filterByRegion("Region0"); // Builds the index outside the measurement
+    }
+
+    @Benchmark
+    public List<SalesRecord> filterByRegion() {
+        return service.filterByRegion("region3"); // Lower case: exercises the case-insensitive match
+    }
+
+    @Benchmark
+    public Map<String, List<SalesRecord>> salesByCategory() {
+        return service.getSalesByCategory();
+    }
+}
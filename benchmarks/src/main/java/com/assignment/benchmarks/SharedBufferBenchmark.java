@@ -0,0 +1,96 @@
+package com.assignment.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and handoff latency of the {@code SharedBuffer} implementations,
+ * with {@link java.util.concurrent.ArrayBlockingQueue} as the baseline.
+ * <p>
+ * Every invocation moves {@value #ITEMS} items from P producers to C consumers
+ * through a fresh buffer; the Producer/Consumer demo classes (and their
+ * {@code Thread.sleep} pacing) are not involved.
+ * <ul>
+ * <li>{@code throughput}: items per second.</li>
+ * <li>{@code latency}: mean time per item; the p50/p99/p999 time from
+ *     {@code put} to {@code take} of each measurement iteration is printed
+ *     to the console.</li>
+ * </ul>
+ * Run with: {@code mvn -f benchmarks/pom.xml package exec:exec -Djmh.args=SharedBufferBenchmark}
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedBufferBenchmark {
+
+    static final int ITEMS = 1 << 16; // Divisible by every producer count below
+
+    @Param({"monitor", "splitlock", "lockfree", "sharded", "abq"})
+    public String impl;
+
+    @Param({"1", "16", "1024"})
+    public int capacity;
+
+    // producers:consumers
+    @Param({"1:1", "4:4", "16:1"})
+    public String topology;
+
+    private HandoffHarness harness;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        harness = new HandoffHarness(topology, ITEMS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        harness.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetHistogram() {
+        histogram.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        if (histogram.count() > 0) {
+            System.out.println(impl + " cap=" + capacity + " " + topology + " " + histogram.summary());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ITEMS)
+    public long throughput() throws Exception {
+        return harness.run(Handoff.create(impl, capacity), false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(ITEMS)
+    public long latency() throws Exception {
+        long sum = harness.run(Handoff.create(impl, capacity), true);
+        // Folding 64K samples costs far less than the transfer itself
+        harness.recordLatencies(histogram);
+        return sum;
+    }
+}
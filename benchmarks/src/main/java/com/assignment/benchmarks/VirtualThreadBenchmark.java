@@ -0,0 +1,97 @@
+package com.assignment.benchmarks;
+
+import com.assignment.assignment1.WorkerThreadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time for {@value #PRODUCERS} I/O-bound producers on platform vs virtual threads.
+ * <p>
+ * Every producer sleeps for {@code ioMillis} (standing in for a DB/network read) and then
+ * puts one item; a few consumers drain the buffer. All workers are started at once, as
+ * {@code PipelineRunner} does, so platform mode needs {@value #PRODUCERS} OS threads while
+ * virtual mode multiplexes them onto a handful of carriers. The run time therefore mostly
+ * measures thread creation, scheduling and how the buffer blocks: a buffer that blocks
+ * inside {@code synchronized} would pin a carrier per waiting virtual thread.
+ * <p>
+ * Run with: {@code mvn -f benchmarks/pom.xml package exec:exec -Djmh.args=VirtualThreadBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    static final int PRODUCERS = 10_000;
+    static final int CONSUMERS = 4;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public WorkerThreadMode mode;
+
+    @Param({"monitor", "splitlock", "lockfree", "sharded"})
+    public String impl;
+
+    @Param({"10"})
+    public int ioMillis;
+
+    @Param({"64"})
+    public int capacity;
+
+    @Benchmark
+    public long producers() throws Exception {
+        Handoff handoff = Handoff.create(impl, capacity);
+        ExecutorService executor = mode.newExecutor("BENCH-", PRODUCERS + CONSUMERS);
+        try {
+            List<Future<Long>> consumers = new ArrayList<>(CONSUMERS);
+            for (int c = 0; c < CONSUMERS; c++) {
+                consumers.add(executor.submit(() -> {
+                    long sum = 0;
+                    Integer item;
+                    while ((item = handoff.take()) != null) {
+                        sum += item;
+                    }
+                    return sum;
+                }));
+            }
+
+            List<Future<?>> producers = new ArrayList<>(PRODUCERS);
+            for (int p = 0; p < PRODUCERS; p++) {
+                Integer item = p;
+                producers.add(executor.submit(() -> {
+                    Thread.sleep(ioMillis); // Simulated blocking I/O
+                    handoff.put(item);
+                    return null;
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+            handoff.done(CONSUMERS);
+
+            long sum = 0;
+            for (Future<Long> consumer : consumers) {
+                sum += consumer.get();
+            }
+            return sum;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
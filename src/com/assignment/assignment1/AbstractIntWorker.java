@@ -0,0 +1,22 @@
+package com.assignment.assignment1;
+
+/**
+ * Abstract base class for the primitive int workers (IntProducer and IntConsumer).
+ * <p>
+ * Mirrors {@link AbstractWorker}, but holds an {@link IntSharedBuffer}
+ * so that no item ever has to be boxed.
+ */
+public abstract class AbstractIntWorker implements Runnable {
+
+    // Protected visibility allows subclasses (IntProducer/IntConsumer) to access the buffer directly
+    protected final IntSharedBuffer buffer;
+
+    /**
+     * Constructor for the abstract worker.
+     *
+     * @param buffer The shared buffer instance that this worker will interact with.
+     */
+    public AbstractIntWorker(IntSharedBuffer buffer) {
+        this.buffer = buffer;
+    }
+}
@@ -6,17 +6,23 @@ package com.assignment.assignment1;
  * This class implements the Runnable interface and holds the common
  * reference to the shared buffer. This demonstrates the OOP principle
  * of Inheritance to avoid code duplication.
+ * <p>
+ * The buffer is typed by the side the worker uses: a Producer holds a
+ * {@link WritableBuffer} and a Consumer a {@link ReadableBuffer}, so a worker
+ * calling the other side's methods does not compile.
+ *
+ * @param <B> The type of the buffer (side) the worker uses, e.g. {@code ReadableBuffer<Integer>}.
  */
-public abstract class AbstractWorker implements Runnable {
+public abstract class AbstractWorker<B> implements Runnable {
 
     // Protected visibility allows subclasses (Producer/Consumer) to access the buffer directly
-    protected final SharedBuffer<Integer> buffer;
+    protected final B buffer;
 
     /**
      * Constructor for the abstract worker.
      * * @param buffer The shared buffer instance that this worker will interact with.
      */
-    public AbstractWorker(SharedBuffer<Integer> buffer) {
+    public AbstractWorker(B buffer) {
         this.buffer = buffer;
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.assignment.assignment1;
+
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link BufferMetrics} implementation that logs every buffer event, off the hot path.
+ * <p>
+ * The calling (producer/consumer) thread only records a small event object into
+ * a bounded queue with a non-blocking {@code offer}. A background daemon thread
+ * formats the messages and writes them to the output stream, so neither string
+ * concatenation nor the stdout lock ever extends the buffer's lock hold time.
+ * If the logger falls behind and its queue is full, events are dropped and counted
+ * rather than slowing the buffer down.
+ * <p>
+ * Call {@link #close()} to flush the remaining events and stop the thread.
+ */
+public class AsyncBufferLogger implements BufferMetrics, AutoCloseable {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    // Marker telling the writer thread that no more events will arrive
+    private static final Event SHUTDOWN = new Event(null, null, 0, 0);
+
+    private final BlockingQueue<Event> events;
+    private final PrintStream out;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a logger writing to {@code System.out}.
+     */
+    public AsyncBufferLogger() {
+        this(System.out, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param out           Where the formatted messages are written.
+     * @param queueCapacity How many events may be pending before new ones are dropped.
+     */
+    public AsyncBufferLogger(PrintStream out, int queueCapacity) {
+        this.events = new ArrayBlockingQueue<>(queueCapacity);
+        this.out = out;
+        this.writer = new Thread(this::writeLoop, "buffer-logger");
+        this.writer.setDaemon(true); // Never keeps the JVM alive on its own
+        this.writer.start();
+    }
+
+    @Override
+    public void onProduced(int items, int size) {
+        record(Kind.PRODUCED, items, size);
+    }
+
+    @Override
+    public void onConsumed(int items, int size) {
+        record(Kind.CONSUMED, items, size);
+    }
+
+    @Override
+    public void onFullWait(long waitNanos) {
+        record(Kind.FULL_WAIT, waitNanos, 0);
+    }
+
+    @Override
+    public void onEmptyWait(long waitNanos) {
+        record(Kind.EMPTY_WAIT, waitNanos, 0);
+    }
+
+    @Override
+    public void onDropped(int items) {
+        record(Kind.DROPPED, items, 0);
+    }
+
+    /**
+     * @return The number of events discarded because the logger could not keep up.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Writes all pending events and stops the background thread.
+     */
+    @Override
+    public void close() {
+        try {
+            events.put(SHUTDOWN);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void record(Kind kind, long value, int size) {
+        // Thread.getName() returns the existing String; nothing is formatted here
+        if (!events.offer(new Event(kind, Thread.currentThread().getName(), value, size))) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Event event = events.take();
+                if (event == SHUTDOWN) {
+                    break;
+                }
+                out.println(format(event));
+            }
+            long lost = dropped.sum();
+            if (lost > 0) {
+                out.println("LOGGER: " + lost + " events dropped");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String format(Event event) {
+        switch (event.kind) {
+            case PRODUCED:
+                return event.thread + ": Added " + event.value + (event.value == 1 ? " item" : " items") + " | Size: " + event.size;
+            case CONSUMED:
+                return event.thread + ": Removed " + event.value + (event.value == 1 ? " item" : " items") + " | Size: " + event.size;
+            case DROPPED:
+                return event.thread + ": Buffer FULL. Dropped " + event.value + (event.value == 1 ? " item" : " items");
+            case FULL_WAIT:
+                return String.format("%s: Buffer FULL. Waited %.1f ms", event.thread, event.value / 1e6);
+            default:
+                return String.format("%s: Buffer EMPTY. Waited %.1f ms", event.thread, event.value / 1e6);
+        }
+    }
+
+    private enum Kind { PRODUCED, CONSUMED, DROPPED, FULL_WAIT, EMPTY_WAIT }
+
+    // Immutable snapshot of one buffer event, handed from the worker thread to the writer
+    private static final class Event {
+        final Kind kind;
+        final String thread;
+        final long value;
+        final int size;
+
+        Event(Kind kind, String thread, long value, int size) {
+            this.kind = kind;
+            this.thread = thread;
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.assignment.assignment1;
+
+/**
+ * Listener notified by a {@link SharedBuffer} about its activity.
+ * <p>
+ * Callbacks run on the producer/consumer threads, often while the buffer lock
+ * is held, so implementations must be cheap and must never block
+ * (see {@link CounterBufferMetrics} and {@link AsyncBufferLogger}).
+ * Every callback has an empty default, so a listener only overrides what it needs.
+ */
+public interface BufferMetrics {
+
+    /**
+     * Listener that ignores everything. Used when a buffer is created without metrics.
+     */
+    BufferMetrics NONE = new BufferMetrics() {};
+
+    /**
+     * Called after items were added to the buffer.
+     *
+     * @param items The number of items added by this call (more than 1 for batches).
+     * @param size  The number of items in the buffer afterwards.
+     */
+    default void onProduced(int items, int size) {}
+
+    /**
+     * Called after items were removed from the buffer.
+     *
+     * @param items The number of items removed by this call (more than 1 for batches).
+     * @param size  The number of items in the buffer afterwards.
+     */
+    default void onConsumed(int items, int size) {}
+
+    /**
+     * Called after items were discarded because the buffer was full
+     * (see {@link OverflowPolicy#DROP_NEWEST} and {@link OverflowPolicy#DROP_OLDEST}).
+     *
+     * @param items The number of items discarded.
+     */
+    default void onDropped(int items) {}
+
+    /**
+     * Called after a producer had to wait because the buffer was full.
+     *
+     * @param waitNanos How long the producer waited.
+     */
+    default void onFullWait(long waitNanos) {}
+
+    /**
+     * Called after a consumer had to wait because the buffer was empty.
+     *
+     * @param waitNanos How long the consumer waited.
+     */
+    default void onEmptyWait(long waitNanos) {}
+
+    /**
+     * Combines this listener with another one; both are notified of every event.
+     *
+     * @param other The listener notified after this one.
+     * @return A listener forwarding to both.
+     */
+    default BufferMetrics andThen(BufferMetrics other) {
+        BufferMetrics first = this;
+        return new BufferMetrics() {
+            @Override
+            public void onProduced(int items, int size) {
+                first.onProduced(items, size);
+                other.onProduced(items, size);
+            }
+
+            @Override
+            public void onConsumed(int items, int size) {
+                first.onConsumed(items, size);
+                other.onConsumed(items, size);
+            }
+
+            @Override
+            public void onDropped(int items) {
+                first.onDropped(items);
+                other.onDropped(items);
+            }
+
+            @Override
+            public void onFullWait(long waitNanos) {
+                first.onFullWait(waitNanos);
+                other.onFullWait(waitNanos);
+            }
+
+            @Override
+            public void onEmptyWait(long waitNanos) {
+                first.onEmptyWait(waitNanos);
+                other.onEmptyWait(waitNanos);
+            }
+        };
+    }
+}
@@ -10,11 +10,19 @@ import java.util.List;
  * 2. Simulate processing time (slower than producer).
  * 3. Store results in a destination container.
  * 4. Stop gracefully when the buffer signals completion.
+ * <p>
+ * With a batch size greater than 1, the Consumer takes up to that many items per
+ * call via {@link ReadableBuffer#drainTo}, paying one lock acquisition per batch.
+ *
+ * @param <T> The type of the items consumed.
  */
-public class Consumer extends AbstractWorker {
+public class Consumer<T> extends AbstractWorker<ReadableBuffer<T>> {
 
     // The container where processed items are stored (e.g., a results list)
-    private final List<Integer> destination;
+    private final List<T> destination;
+
+    // Maximum number of items taken from the buffer per call (1 = item-by-item mode)
+    private final int batchSize;
 
     /**
      * Constructor for the Consumer.
@@ -22,9 +30,24 @@ public class Consumer extends AbstractWorker {
      * @param buffer The shared buffer to read data from.
      * @param destination The list where consumed items will be saved.
      */
-    public Consumer(SharedBuffer<Integer> buffer, List<Integer> destination) {
+    public Consumer(ReadableBuffer<T> buffer, List<T> destination) {
+        this(buffer, destination, 1);
+    }
+
+    /**
+     * Constructor for a batching Consumer.
+     *
+     * @param buffer      The shared buffer to read data from.
+     * @param destination The list where consumed items will be saved.
+     * @param batchSize   The maximum number of items taken from the buffer per call.
+     */
+    public Consumer(ReadableBuffer<T> buffer, List<T> destination, int batchSize) {
         super(buffer); // Pass buffer to parent AbstractWorker
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
         this.destination = destination;
+        this.batchSize = batchSize;
     }
 
     /**
@@ -33,6 +56,11 @@ public class Consumer extends AbstractWorker {
     @Override
     public void run() {
         try {
+            if (batchSize > 1) {
+                runBatched();
+                return;
+            }
+
             // Continuously consume items until the termination signal is received
             while (true) {
                 // Simulate processing time.
@@ -43,7 +71,7 @@ public class Consumer extends AbstractWorker {
 
                 // Attempt to take an item from the buffer.
                 // If the buffer is empty, this call will BLOCK (wait) until data is available.
-                Integer item = buffer.consume();
+                T item = buffer.consume();
 
                 // Check for termination signal.
                 // The buffer returns null when it is empty AND production is finished.
@@ -61,4 +89,20 @@ public class Consumer extends AbstractWorker {
             Thread.currentThread().interrupt();
         }
     }
+
+    /**
+     * Batch mode: drains up to batchSize items per call straight into the destination.
+     */
+    private void runBatched() throws InterruptedException {
+        while (true) {
+            // Simulate processing time for one batch
+            Thread.sleep(250);
+
+            // Blocks only while the buffer is empty; -1 signals that production is finished
+            if (buffer.drainTo(destination, batchSize) < 0) {
+                break;
+            }
+        }
+        System.out.println("Consumer: Job Finished.");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.assignment.assignment1;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link BufferMetrics} implementation that only counts.
+ * <p>
+ * Uses {@link LongAdder}s, which spread concurrent increments over per-thread
+ * cells instead of contending on one atomic field, so recording an event from
+ * inside the buffer's critical section costs a few nanoseconds.
+ */
+public class CounterBufferMetrics implements BufferMetrics {
+
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder fullWaits = new LongAdder();
+    private final LongAdder emptyWaits = new LongAdder();
+    private final LongAdder fullWaitNanos = new LongAdder();
+    private final LongAdder emptyWaitNanos = new LongAdder();
+
+    @Override
+    public void onProduced(int items, int size) {
+        produced.add(items);
+    }
+
+    @Override
+    public void onConsumed(int items, int size) {
+        consumed.add(items);
+    }
+
+    @Override
+    public void onDropped(int items) {
+        dropped.add(items);
+    }
+
+    @Override
+    public void onFullWait(long waitNanos) {
+        fullWaits.increment();
+        fullWaitNanos.add(waitNanos);
+    }
+
+    @Override
+    public void onEmptyWait(long waitNanos) {
+        emptyWaits.increment();
+        emptyWaitNanos.add(waitNanos);
+    }
+
+    public long getProduced() { return produced.sum(); }
+    public long getConsumed() { return consumed.sum(); }
+    public long getDropped() { return dropped.sum(); }
+    public long getFullWaits() { return fullWaits.sum(); }
+    public long getEmptyWaits() { return emptyWaits.sum(); }
+    public long getFullWaitNanos() { return fullWaitNanos.sum(); }
+    public long getEmptyWaitNanos() { return emptyWaitNanos.sum(); }
+
+    /**
+     * @return Total time producers and consumers spent waiting, in nanoseconds.
+     */
+    public long getTotalWaitNanos() {
+        return fullWaitNanos.sum() + emptyWaitNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BufferMetrics{produced=%d, consumed=%d, dropped=%d, fullWaits=%d (%.2f ms), emptyWaits=%d (%.2f ms)}",
+                getProduced(), getConsumed(), getDropped(),
+                getFullWaits(), getFullWaitNanos() / 1e6,
+                getEmptyWaits(), getEmptyWaitNanos() / 1e6);
+    }
+}
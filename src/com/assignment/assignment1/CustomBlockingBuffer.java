@@ -1,13 +1,33 @@
 package com.assignment.assignment1;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A concrete implementation of a thread-safe shared buffer (Monitor Object).
  * <p>
- * This class handles the synchronization logic using Java's built-in
- * monitor mechanism (synchronized, wait, notifyAll).
+ * This class handles the synchronization logic with an explicit monitor:
+ * one {@link ReentrantLock} guarding the queue, plus two {@link Condition}s
+ * ({@code notFull} for producers, {@code notEmpty} for consumers). Compared to
+ * {@code synchronized}/{@code wait()}/{@code notifyAll()} this has two benefits:
+ * <ul>
+ * <li>Waking is targeted: a producer only wakes a consumer and vice versa,
+ *     instead of every waiter in the object's single wait set.</li>
+ * <li>It is safe for virtual threads: a virtual thread blocked in
+ *     {@code Object.wait()} inside a {@code synchronized} block pins its carrier
+ *     thread, while one parked on a {@code Condition} releases it.</li>
+ * </ul>
+ * <p>
+ * When the buffer is full, producers follow the configured {@link OverflowPolicy}:
+ * they block (the default), drop the new item, drop the oldest item, or fail.
+ * <p>
+ * Nothing is logged from inside the critical section. Activity is reported to
+ * an optional {@link BufferMetrics} listener instead; by default there is none.
  *
  * @param <T> The type of data stored in the buffer.
  */
@@ -22,36 +42,100 @@ public class CustomBlockingBuffer<T> implements SharedBuffer<T> {
     // Flag to signal consumers to stop waiting when production is complete
     private boolean productionFinished = false;
 
+    // The monitor: one lock, one wait queue per side
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+
+    // Listener for produce/consume/wait events (BufferMetrics.NONE when not monitored)
+    private final BufferMetrics metrics;
+
+    // What producers do when the buffer is full, and how many items that discarded so far
+    private final OverflowPolicy policy;
+    private long droppedCount = 0;
+
     /**
      * Constructor to initialize the buffer.
      * * @param capacity The fixed size of the buffer.
      */
     public CustomBlockingBuffer(int capacity) {
+        this(capacity, BufferMetrics.NONE);
+    }
+
+    /**
+     * Constructor to initialize a monitored buffer.
+     *
+     * @param capacity The fixed size of the buffer.
+     * @param metrics  The listener notified of buffer activity.
+     */
+    public CustomBlockingBuffer(int capacity, BufferMetrics metrics) {
+        this(capacity, OverflowPolicy.BLOCK, metrics);
+    }
+
+    /**
+     * Constructor to initialize a buffer with an overflow policy.
+     *
+     * @param capacity The fixed size of the buffer.
+     * @param policy   What producers do when the buffer is full.
+     */
+    public CustomBlockingBuffer(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, BufferMetrics.NONE);
+    }
+
+    /**
+     * Constructor to initialize a monitored buffer with an overflow policy.
+     *
+     * @param capacity The fixed size of the buffer.
+     * @param policy   What producers do when the buffer is full.
+     * @param metrics  The listener notified of buffer activity.
+     */
+    public CustomBlockingBuffer(int capacity, OverflowPolicy policy, BufferMetrics metrics) {
         this.queue = new LinkedList<>();
         this.capacity = capacity;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return The number of items discarded by the DROP_NEWEST / DROP_OLDEST policies so far.
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Adds an item to the buffer in a thread-safe manner.
-     * Blocks the calling thread if the buffer is full.
+     * If the buffer is full, applies the overflow policy (by default: blocks the calling thread).
+     *
+     * @throws IllegalStateException If the buffer is full and the policy is FAIL.
      */
     @Override
-    public synchronized void produce(T item) throws InterruptedException {
+    public void produce(T item) throws InterruptedException {
         // Critical Section: Only one thread can execute this block at a time.
+        lock.lockInterruptibly();
+        try {
+            if (dropsIncoming()) {
+                return;
+            }
 
-        // "While" loop is used instead of "If" to handle spurious wakeups.
-        // If the buffer is full, the producer must wait.
-        while (queue.size() == capacity) {
-            System.out.println(Thread.currentThread().getName() + ": Buffer FULL. Waiting...");
-            wait(); // Releases the lock and waits until notified
-        }
+            // "While" loop is used instead of "If" to handle spurious wakeups.
+            // If the buffer is full, the producer must wait.
+            awaitNotFull();
 
-        // Add the item to the queue
-        queue.add(item);
-        System.out.println(Thread.currentThread().getName() + ": Added " + item + " | Size: " + queue.size());
+            // Add the item to the queue
+            queue.add(item);
+            metrics.onProduced(1, queue.size());
 
-        // Notify all waiting threads (specifically Consumers) that data is available
-        notifyAll();
+            // Wake one waiting Consumer: data is available
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -59,37 +143,312 @@ public class CustomBlockingBuffer<T> implements SharedBuffer<T> {
      * Blocks the calling thread if the buffer is empty.
      */
     @Override
-    public synchronized T consume() throws InterruptedException {
+    public T consume() throws InterruptedException {
         // Critical Section
-
-        // Wait while the queue is empty
-        while (queue.isEmpty()) {
-            // Check if production is finished. If so, return null to signal exit.
-            if (productionFinished) {
+        lock.lockInterruptibly();
+        try {
+            // Wait while the queue is empty.
+            // Returns false if production is finished, so return null to signal exit.
+            if (!awaitNotEmpty()) {
                 return null;
             }
-            System.out.println(Thread.currentThread().getName() + ": Buffer EMPTY. Waiting...");
-            wait(); // Releases the lock and waits until notified
+
+            // Retrieve and remove the head of the queue
+            T item = queue.poll();
+            metrics.onConsumed(1, queue.size());
+
+            // Wake one waiting Producer: space is available
+            notFull.signal();
+
+            return item;
+        } finally {
+            lock.unlock();
         }
+    }
+
+    /**
+     * Adds a batch of items while holding the lock.
+     * Only waits (and releases the lock) when the batch does not fit into the free space.
+     */
+    @Override
+    public void produceAll(Collection<? extends T> items) throws InterruptedException {
+        Iterator<? extends T> it = items.iterator();
+        lock.lockInterruptibly();
+        try {
+            while (it.hasNext()) {
+                if (dropsIncoming()) {
+                    it.next();
+                    continue;
+                }
+                awaitNotFull();
+                int added = fill(it);
+                metrics.onProduced(added, queue.size());
 
-        // Retrieve and remove the head of the queue
-        T item = queue.poll();
-        System.out.println(Thread.currentThread().getName() + ": Removed " + item + " | Size: " + queue.size());
+                // One notification per batch instead of one per item
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of items, giving up once the timeout elapses while the buffer is full.
+     */
+    @Override
+    public int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        Iterator<? extends T> it = items.iterator();
+        int produced = 0;
+        lock.lockInterruptibly();
+        try {
+            while (it.hasNext()) {
+                if (dropsIncoming()) {
+                    it.next();
+                    continue;
+                }
+                remaining = awaitNotFull(remaining);
+                if (remaining < 0) {
+                    return produced;
+                }
+                int added = fill(it);
+                metrics.onProduced(added, queue.size());
+                produced += added;
+                notEmpty.signalAll();
+            }
+            return produced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a batch of items while holding the lock.
+     * Blocks only while the buffer is empty and production is still running.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException {
+        checkMaxItems(maxItems);
+        lock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty()) {
+                return -1;
+            }
+            int removed = drain(destination, maxItems);
+            metrics.onConsumed(removed, queue.size());
+
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a batch of items, giving up once the timeout elapses while the buffer is empty.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        checkMaxItems(maxItems);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty(remaining)) {
+                return productionFinished ? -1 : 0;
+            }
+            int removed = drain(destination, maxItems);
+            metrics.onConsumed(removed, queue.size());
+            notFull.signalAll();
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        // Notify all waiting threads (specifically Producers) that space is available
-        notifyAll();
+    /**
+     * Adds an item, waiting at most the timeout while the buffer is full.
+     * The timeout only applies to the BLOCK policy; the others decide immediately.
+     *
+     * @throws IllegalStateException If the buffer is full and the policy is FAIL.
+     */
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (dropsIncoming() || awaitNotFull(nanos) < 0) {
+                return false;
+            }
+            queue.add(item);
+            metrics.onProduced(1, queue.size());
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        return item;
+    /**
+     * Removes an item, waiting at most the timeout while the buffer is empty.
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty(nanos)) {
+                return null;
+            }
+            T item = queue.poll();
+            metrics.onConsumed(1, queue.size());
+            notFull.signal();
+            return item;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Signals that the producer has finished its job.
-     * We must notifyAll() here to wake up any consumers currently stuck in wait(),
+     * We must signalAll() here to wake up any consumers currently waiting on notEmpty,
      * allowing them to check the flag and exit gracefully.
      */
     @Override
-    public synchronized void setDone(boolean done) {
-        this.productionFinished = done;
-        notifyAll(); // Wake up waiting consumers so they can terminate
+    public void setDone(boolean done) {
+        lock.lock();
+        try {
+            this.productionFinished = done;
+            notEmpty.signalAll(); // Wake up waiting consumers so they can terminate
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits while the queue is full, reporting the time spent. Caller must hold the lock.
+    private void awaitNotFull() throws InterruptedException {
+        if (queue.size() == capacity) {
+            long waitStart = System.nanoTime();
+            do {
+                notFull.await(); // Releases the lock and waits until signalled
+            } while (queue.size() == capacity);
+            metrics.onFullWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    // Waits while the queue is empty, reporting the time spent. Caller must hold the lock.
+    // Returns false if production finished while the queue was empty.
+    private boolean awaitNotEmpty() throws InterruptedException {
+        long waitStart = 0;
+        while (queue.isEmpty()) {
+            if (productionFinished) {
+                recordEmptyWait(waitStart);
+                return false;
+            }
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            notEmpty.await(); // Releases the lock and waits until signalled
+        }
+        recordEmptyWait(waitStart);
+        return true;
+    }
+
+    // Waits at most nanos while the queue is full, reporting the time spent. Caller must hold the lock.
+    // Returns the time left (>= 0), or -1 if the timeout elapsed while the queue was still full.
+    private long awaitNotFull(long nanos) throws InterruptedException {
+        long waitStart = 0;
+        while (queue.size() == capacity) {
+            if (nanos <= 0) {
+                recordFullWait(waitStart);
+                return -1;
+            }
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            nanos = notFull.awaitNanos(nanos);
+        }
+        recordFullWait(waitStart);
+        return Math.max(nanos, 0);
+    }
+
+    // Waits at most nanos while the queue is empty, reporting the time spent. Caller must hold the lock.
+    // Returns false if the timeout elapsed or production finished while the queue was empty.
+    private boolean awaitNotEmpty(long nanos) throws InterruptedException {
+        long waitStart = 0;
+        while (queue.isEmpty()) {
+            if (productionFinished || nanos <= 0) {
+                recordEmptyWait(waitStart);
+                return false;
+            }
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            nanos = notEmpty.awaitNanos(nanos);
+        }
+        recordEmptyWait(waitStart);
+        return true;
+    }
+
+    // Applies a non-blocking overflow policy if the queue is full. Caller must hold the lock.
+    // Returns true if the incoming item must be discarded (DROP_NEWEST); with DROP_OLDEST
+    // the head is evicted instead, so the caller can add the item without waiting.
+    private boolean dropsIncoming() {
+        if (queue.size() < capacity || policy == OverflowPolicy.BLOCK) {
+            return false;
+        }
+        switch (policy) {
+            case DROP_NEWEST:
+                recordDropped();
+                return true;
+            case DROP_OLDEST:
+                queue.poll();
+                recordDropped();
+                return false;
+            default:
+                throw new IllegalStateException("Buffer is full (capacity " + capacity + ")");
+        }
+    }
+
+    private void recordDropped() {
+        droppedCount++;
+        metrics.onDropped(1);
+    }
+
+    private void recordFullWait(long waitStart) {
+        if (waitStart != 0) {
+            metrics.onFullWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    private void recordEmptyWait(long waitStart) {
+        if (waitStart != 0) {
+            metrics.onEmptyWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    // Moves items from the iterator into the queue until it is full. Caller must hold the lock.
+    private int fill(Iterator<? extends T> it) {
+        int added = 0;
+        while (it.hasNext() && queue.size() < capacity) {
+            queue.add(it.next());
+            added++;
+        }
+        return added;
+    }
+
+    // Moves up to maxItems from the queue into the destination. Caller must hold the lock.
+    private int drain(Collection<? super T> destination, int maxItems) {
+        int removed = 0;
+        while (removed < maxItems && !queue.isEmpty()) {
+            destination.add(queue.poll());
+            removed++;
+        }
+        return removed;
+    }
+
+    private static void checkMaxItems(int maxItems) {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.assignment.assignment1;
+
+import java.util.Arrays;
+
+/**
+ * A growable {@code int[]} used as the destination of an {@link IntConsumer}.
+ * <p>
+ * Appending only allocates when the backing array has to grow (doubling), so a
+ * sink created with the expected size never allocates in the steady state.
+ * Not thread-safe: each consumer should own its sink.
+ */
+public class IntArraySink {
+
+    private int[] data;
+    private int size = 0;
+
+    /**
+     * @param initialCapacity The expected number of items (avoids growth when exact).
+     */
+    public IntArraySink(int initialCapacity) {
+        this.data = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Appends an item, doubling the backing array if it is full.
+     */
+    public void add(int item) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, data.length << 1);
+        }
+        data[size++] = item;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return data[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return A trimmed copy of the stored items.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
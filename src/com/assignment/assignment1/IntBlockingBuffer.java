@@ -0,0 +1,102 @@
+package com.assignment.assignment1;
+
+/**
+ * Array-backed, allocation-free implementation of {@link IntSharedBuffer}.
+ * <p>
+ * Like {@link CustomBlockingBuffer} it is a single-lock monitor, but it uses
+ * the object's intrinsic lock (synchronized, wait, notifyAll) instead of a
+ * {@code ReentrantLock} with separate {@code notFull}/{@code notEmpty}
+ * conditions, and stores items in a preallocated {@code int[]} ring instead of
+ * a {@code LinkedList<Integer>}, so moving an item costs neither a boxed
+ * Integer nor a list node. With one wait set, producers and consumers are woken
+ * together, so waiters are only woken on the empty -> non-empty and
+ * full -> non-full transitions, the only points at which anybody can be waiting.
+ */
+public class IntBlockingBuffer implements IntSharedBuffer {
+
+    // Preallocated ring storage
+    private final int[] items;
+
+    // Index of the next item to consume, and number of items currently stored
+    private int head = 0;
+    private int count = 0;
+
+    // Flag to signal consumers to stop waiting when production is complete
+    private boolean productionFinished = false;
+
+    /**
+     * Constructor to initialize the buffer.
+     *
+     * @param capacity The fixed size of the buffer.
+     */
+    public IntBlockingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.items = new int[capacity];
+    }
+
+    /**
+     * Adds an item to the buffer in a thread-safe manner.
+     * Blocks the calling thread if the buffer is full.
+     */
+    @Override
+    public synchronized void produce(int item) throws InterruptedException {
+        while (count == items.length) {
+            wait();
+        }
+
+        int tail = head + count;
+        if (tail >= items.length) {
+            tail -= items.length;
+        }
+        items[tail] = item;
+
+        // Consumers can only be waiting if the buffer was empty
+        if (count++ == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Moves up to maxItems items into the destination in a thread-safe manner.
+     * Blocks the calling thread if the buffer is empty.
+     */
+    @Override
+    public synchronized int drainTo(IntArraySink destination, int maxItems) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
+        while (count == 0) {
+            if (productionFinished) {
+                return -1; // Termination signal: the buffer is empty AND production is finished
+            }
+            wait();
+        }
+
+        int taken = Math.min(count, maxItems);
+        for (int i = 0; i < taken; i++) {
+            destination.add(items[head]);
+            if (++head == items.length) {
+                head = 0;
+            }
+        }
+
+        // Producers can only be waiting if the buffer was full
+        boolean wasFull = count == items.length;
+        count -= taken;
+        if (wasFull) {
+            notifyAll();
+        }
+        return taken;
+    }
+
+    /**
+     * Signals that the producer has finished its job and wakes up waiting consumers.
+     */
+    @Override
+    public synchronized void setDone(boolean done) {
+        this.productionFinished = done;
+        notifyAll();
+    }
+}
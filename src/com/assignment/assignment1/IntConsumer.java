@@ -0,0 +1,42 @@
+package com.assignment.assignment1;
+
+/**
+ * Primitive variant of {@link Consumer} that writes into an {@link IntArraySink}.
+ * <p>
+ * Built for throughput rather than demonstration: there is no simulated
+ * processing delay and nothing is allocated per item.
+ */
+public class IntConsumer extends AbstractIntWorker {
+
+    // Items taken per lock acquisition; a batch is copied straight into the sink
+    private static final int BATCH_SIZE = 256;
+
+    // The container where consumed items are stored
+    private final IntArraySink destination;
+
+    /**
+     * Constructor for the IntConsumer.
+     *
+     * @param buffer      The shared buffer to read data from.
+     * @param destination The sink where consumed items will be saved.
+     */
+    public IntConsumer(IntSharedBuffer buffer, IntArraySink destination) {
+        super(buffer);
+        this.destination = destination;
+    }
+
+    /**
+     * Moves items from the buffer into the sink until production is finished.
+     */
+    @Override
+    public void run() {
+        try {
+            // Blocks only while the buffer is empty; -1 signals that production is finished
+            while (buffer.drainTo(destination, BATCH_SIZE) >= 0) {
+                // Items are already in the sink
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.assignment.assignment1;
+
+/**
+ * Primitive variant of {@link Producer} that reads from an {@code int[]} source.
+ * <p>
+ * Built for throughput rather than demonstration: there is no simulated
+ * processing delay and nothing is allocated per item.
+ */
+public class IntProducer extends AbstractIntWorker {
+
+    // The source of data to be produced
+    private final int[] source;
+
+    /**
+     * Constructor for the IntProducer.
+     *
+     * @param buffer The shared buffer to write data into.
+     * @param source The items to be sent to the buffer, in order.
+     */
+    public IntProducer(IntSharedBuffer buffer, int[] source) {
+        super(buffer);
+        this.source = source;
+    }
+
+    /**
+     * Moves every source item into the buffer, then signals completion.
+     */
+    @Override
+    public void run() {
+        try {
+            for (int item : source) {
+                // Blocks while the buffer is full
+                buffer.produce(item);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Signal the buffer that no more data is coming, even if interrupted, so the consumer exits
+            buffer.setDone(true);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.assignment.assignment1;
+
+/**
+ * Primitive {@code int} specialization of {@link SharedBuffer}.
+ * <p>
+ * Items are passed as raw ints, so neither the producer nor the consumer side
+ * allocates an {@code Integer} per item. Items are taken in batches with
+ * {@link #drainTo}, which returns -1 once production is done and the buffer is
+ * drained (like {@link SharedBuffer#drainTo}), since a primitive cannot be null.
+ */
+public interface IntSharedBuffer {
+
+    /**
+     * Adds an item to the buffer.
+     * <p>
+     * If the buffer is full, the calling thread must wait (block)
+     * until space becomes available.
+     *
+     * @param item The item to produce/add.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    void produce(int item) throws InterruptedException;
+
+    /**
+     * Removes up to {@code maxItems} items from the buffer and appends them to the destination.
+     * <p>
+     * If the buffer is empty, the calling thread waits (blocks) until at least
+     * one item becomes available, then takes everything available up to the limit.
+     *
+     * @param destination The sink that receives the items, in FIFO order.
+     * @param maxItems    The maximum number of items to transfer (must be positive).
+     * @return The number of items transferred, or -1 if production is done and the buffer is drained.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    int drainTo(IntArraySink destination, int maxItems) throws InterruptedException;
+
+    /**
+     * Sets a flag indicating that the Producer has finished its job.
+     * This is used to signal Consumers to stop waiting and exit safely.
+     *
+     * @param done True if production is complete.
+     */
+    void setDone(boolean done);
+}
@@ -0,0 +1,347 @@
+package com.assignment.assignment1;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free, bounded, multi-producer / multi-consumer ring buffer.
+ * <p>
+ * Unlike {@link CustomBlockingBuffer}, no thread ever holds a lock here.
+ * Every slot of a preallocated power-of-two array carries a sequence number,
+ * and producers/consumers claim positions by CAS on the shared tail/head
+ * counters (a variant of the Vyukov bounded MPMC queue):
+ * <ul>
+ * <li>slot sequence == 2 * position     : the slot is free for the producer claiming that position.</li>
+ * <li>slot sequence == 2 * position + 1 : the slot holds an item for the consumer claiming that position.</li>
+ * </ul>
+ * Doubling the sequence keeps the "free" and "full" states distinct even when
+ * the capacity is 1, where the original scheme cannot tell them apart.
+ * When the buffer is full (or empty) the caller spins briefly, then yields,
+ * then parks for increasingly longer intervals until it can make progress.
+ *
+ * @param <T> The type of data stored in the buffer.
+ */
+public class LockFreeRingBuffer<T> implements SharedBuffer<T> {
+
+    // Idle strategy thresholds: busy-spin first, then yield, then park with back-off
+    private static final int SPIN_LIMIT = 100;
+    private static final int YIELD_LIMIT = SPIN_LIMIT + 10;
+    private static final long MIN_PARK_NANOS = 1_000L;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    // Preallocated storage; slot i is only touched by the thread that won its position
+    private final Object[] items;
+
+    // Per-slot sequence numbers that publish slot ownership between threads
+    private final AtomicLongArray sequences;
+
+    // capacity - 1, used instead of modulo since capacity is a power of two
+    private final int mask;
+
+    // Next position to write (producers) and next position to read (consumers).
+    // Padded: producers hammer tail and consumers hammer head, so they must not share a cache line.
+    private final PaddedAtomicLong tail = new PaddedAtomicLong();
+    private final PaddedAtomicLong head = new PaddedAtomicLong();
+
+    // Flag to signal consumers to stop waiting when production is complete
+    private volatile boolean productionFinished = false;
+
+    /**
+     * Constructor to initialize the buffer.
+     *
+     * @param capacity The minimum number of items the buffer can hold.
+     *                 It is rounded up to the next power of two.
+     */
+    public LockFreeRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Capacity too large: " + capacity);
+        }
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, 2L * i);
+        }
+    }
+
+    /**
+     * @return The real (power-of-two) capacity of the buffer.
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Adds an item to the buffer.
+     * Spins, then parks, while the buffer is full.
+     */
+    @Override
+    public void produce(T item) throws InterruptedException {
+        checkNotNull(item);
+        int idle = 0;
+        while (!tryProduce(item)) {
+            idle = idle(idle);
+        }
+    }
+
+    /**
+     * Removes an item from the buffer.
+     * Spins, then parks, while the buffer is empty.
+     *
+     * @return The next item, or null once production is done and the buffer is drained.
+     */
+    @Override
+    public T consume() throws InterruptedException {
+        int idle = 0;
+        while (true) {
+            T item = tryConsume();
+            if (item != null) {
+                return item;
+            }
+            if (productionFinished) {
+                // Re-check after reading the flag: items published before setDone() must still be delivered
+                return tryConsume();
+            }
+            idle = idle(idle);
+        }
+    }
+
+    /**
+     * Adds an item, giving up once the timeout elapses while the buffer is full.
+     * The last back-off park may overshoot the deadline by up to 1ms.
+     */
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(item);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (!tryProduce(item)) {
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            idle = idle(idle);
+        }
+        return true;
+    }
+
+    /**
+     * Removes an item, giving up once the timeout elapses while the buffer is empty.
+     *
+     * @return The next item, or null on timeout or once production is done and the buffer is drained.
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (true) {
+            T item = tryConsume();
+            if (item != null) {
+                return item;
+            }
+            if (productionFinished) {
+                return tryConsume();
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            idle = idle(idle);
+        }
+    }
+
+    /**
+     * Adds a batch of items. There is no lock to amortize here, so this
+     * is simply a sequence of CAS claims sharing one back-off state.
+     */
+    @Override
+    public void produceAll(Collection<? extends T> items) throws InterruptedException {
+        int idle = 0;
+        for (T item : items) {
+            checkNotNull(item);
+            while (!tryProduce(item)) {
+                idle = idle(idle);
+            }
+        }
+    }
+
+    /**
+     * Adds a batch of items, giving up once the timeout elapses while the buffer is full.
+     * The last back-off park may overshoot the deadline by up to 1ms.
+     */
+    @Override
+    public int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int produced = 0;
+        int idle = 0;
+        for (T item : items) {
+            checkNotNull(item);
+            while (!tryProduce(item)) {
+                if (deadline - System.nanoTime() <= 0) {
+                    return produced;
+                }
+                idle = idle(idle);
+            }
+            produced++;
+        }
+        return produced;
+    }
+
+    /**
+     * Removes every available item up to the limit, waiting only for the first one.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException {
+        checkMaxItems(maxItems);
+        int idle = 0;
+        while (true) {
+            int removed = drainAvailable(destination, maxItems);
+            if (removed > 0) {
+                return removed;
+            }
+            if (productionFinished) {
+                removed = drainAvailable(destination, maxItems);
+                return removed > 0 ? removed : -1;
+            }
+            idle = idle(idle);
+        }
+    }
+
+    /**
+     * Removes every available item up to the limit, waiting at most the timeout for the first one.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        checkMaxItems(maxItems);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (true) {
+            int removed = drainAvailable(destination, maxItems);
+            if (removed > 0) {
+                return removed;
+            }
+            if (productionFinished) {
+                removed = drainAvailable(destination, maxItems);
+                return removed > 0 ? removed : -1;
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return 0;
+            }
+            idle = idle(idle);
+        }
+    }
+
+    /**
+     * Signals that the producer has finished its job.
+     * Waiting consumers notice the flag on their next wake-up and drain/exit.
+     */
+    @Override
+    public void setDone(boolean done) {
+        this.productionFinished = done;
+    }
+
+    /**
+     * Attempts to claim the next tail position without blocking.
+     *
+     * @return true if the item was stored, false if the buffer is full.
+     */
+    boolean tryProduce(T item) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - 2 * pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[index] = item;
+                    // Release: publishes the item to the consumer that claims this position
+                    sequences.lazySet(index, 2 * pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // Slot still holds an unconsumed item from the previous lap: full
+            } else {
+                pos = tail.get(); // Another producer won this position; retry with a fresh tail
+            }
+        }
+    }
+
+    /**
+     * Attempts to claim the next head position without blocking.
+     *
+     * @return The item, or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    T tryConsume() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (2 * pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T item = (T) items[index];
+                    items[index] = null; // Let GC reclaim the item
+                    // Release: hands the slot back to the producer of the next lap
+                    sequences.lazySet(index, 2 * (pos + items.length));
+                    return item;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null; // Slot not yet published: empty
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    // Takes items without waiting until the buffer is empty or the limit is reached
+    private int drainAvailable(Collection<? super T> destination, int maxItems) {
+        int removed = 0;
+        T item;
+        while (removed < maxItems && (item = tryConsume()) != null) {
+            destination.add(item);
+            removed++;
+        }
+        return removed;
+    }
+
+    private static void checkNotNull(Object item) {
+        if (item == null) {
+            // null is reserved as the "production finished" signal of consume()
+            throw new NullPointerException("Buffer does not accept null items");
+        }
+    }
+
+    private static void checkMaxItems(int maxItems) {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
+    }
+
+    /**
+     * Back-off step used while the buffer cannot make progress (also used by {@link ShardedBuffer}).
+     *
+     * @param idle Number of consecutive failed attempts so far.
+     * @return The updated attempt counter.
+     * @throws InterruptedException If the thread was interrupted while backing off.
+     */
+    static int idle(int idle) throws InterruptedException {
+        if (idle < SPIN_LIMIT) {
+            Thread.onSpinWait();
+        } else if (idle < YIELD_LIMIT) {
+            Thread.yield();
+        } else {
+            // Exponential back-off capped at MAX_PARK_NANOS, so a waiter reacts within ~1ms
+            int shift = Math.min(idle - YIELD_LIMIT, 10);
+            LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return Math.min(idle + 1, YIELD_LIMIT + 10);
+    }
+}
@@ -2,15 +2,19 @@ package com.assignment.assignment1;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * The Main Entry Point (Driver) for the Producer-Consumer application.
  * <p>
  * This class demonstrates the "Orchestrator" role:
  * 1. Configures the environment (Data and Buffer size).
- * 2. Initializes the worker threads (Producer and Consumer).
- * 3. Manages the Thread Lifecycle (Start and Join).
+ * 2. Initializes the workers (Producers and Consumers) through a PipelineRunner.
+ * 3. Manages the Thread Lifecycle through an ExecutorService.
  * 4. Validates the final result to prove Thread Safety.
+ * <p>
+ * Pass {@code virtual} as the first argument to run the workers on virtual threads.
  */
 public class Main {
 
@@ -23,64 +27,71 @@ public class Main {
 
         // We set a small capacity (3) intentionally.
         // Since we are moving 10 items, the buffer WILL fill up.
-        // This forces the Producer to block (wait), satisfying the assignment requirement.
+        // This forces the Producers to block (wait), satisfying the assignment requirement.
         int bufferCapacity = 3;
-
-        // Source: The "Database" or input stream we want to process.
+        int producerCount = 2;
+        int consumerCount = 2;
+        WorkerThreadMode threadMode = args.length > 0 && args[0].equalsIgnoreCase("virtual")
+                ? WorkerThreadMode.VIRTUAL : WorkerThreadMode.PLATFORM;
+
+        // Sources: The "Databases" or input streams we want to process.
+        // Producer 1 reads numbers 1 to 5, Producer 2 reads numbers 6 to 10.
+        List<List<Integer>> sources = new ArrayList<>();
         List<Integer> sourceData = new ArrayList<>();
-
-        // Destination: Where the processed data ends up.
-        List<Integer> finalData = new ArrayList<>();
-
-        // Populate dummy data (numbers 1 to 10)
-        for (int i = 1; i <= 10; i++) sourceData.add(i);
+        for (int p = 0; p < producerCount; p++) {
+            List<Integer> source = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) source.add(p * 5 + i);
+            sources.add(source);
+            sourceData.addAll(source);
+        }
 
         // ---------------------------------------------------------------
         // 2. INITIALIZATION (Dependency Injection)
         // ---------------------------------------------------------------
 
-        // We use the Interface type (SharedBuffer) for the variable, but the
-        // Concrete type (CustomBlockingBuffer) for the instance.
-        // This is known as "Programming to an Interface" (Polymorphism).
-        SharedBuffer<Integer> buffer = new CustomBlockingBuffer<>(bufferCapacity);
+        // The buffer itself never prints. For this demo we attach an asynchronous
+        // logger that prints every buffer event from its own background thread.
+        AsyncBufferLogger logger = new AsyncBufferLogger();
 
-        // Inject the shared buffer and data containers into the workers
-        Producer producer = new Producer(buffer, sourceData);
-        Consumer consumer = new Consumer(buffer, finalData);
+        // One thread per worker, named so the log shows who did what
+        ExecutorService executor = threadMode.newExecutor("WORKER-", producerCount + consumerCount);
+
+        // The runner creates one buffer per run. We use the Interface type (SharedBuffer),
+        // and the Concrete type (CustomBlockingBuffer) only appears in the factory.
+        // This is known as "Programming to an Interface" (Polymorphism).
+        PipelineRunner<Integer> runner = new PipelineRunner<>(executor, () -> new CustomBlockingBuffer<>(bufferCapacity, logger));
 
         // ---------------------------------------------------------------
         // 3. EXECUTION (Thread Management)
         // ---------------------------------------------------------------
 
-        // Wrap the Runnable workers in actual Java Thread objects
-        Thread t1 = new Thread(producer, "PRODUCER");
-        Thread t2 = new Thread(consumer, "CONSUMER");
-
-        // Start concurrent execution. The JVM scheduler will now toggle between them.
-        t1.start();
-        t2.start();
-
-        // The Main thread must wait for workers to finish before verifying results.
-        // .join() puts the Main thread in a waiting state until t1 and t2 die.
+        // The runner submits every Producer and Consumer to the executor and waits for all of them.
+        // Consumers are only released once BOTH producers have finished.
+        List<Integer> finalData = new ArrayList<>();
         try {
-            t1.join();
-            t2.join();
-        } catch (InterruptedException e) {
+            finalData = runner.run(sources, consumerCount);
+        } catch (InterruptedException | ExecutionException e) {
             e.printStackTrace();
+        } finally {
+            executor.shutdown();
         }
 
+        // Flush the remaining log lines before printing the summary
+        logger.close();
+
         // ---------------------------------------------------------------
         // 4. VALIDATION
         // ---------------------------------------------------------------
         System.out.println("--- Complete ---");
 
         // Verify Data Integrity:
-        // If the synchronization logic is correct, the source and destination
-        // lists must be identical in size, values, and order.
+        // If the synchronization logic is correct, the merged consumer output
+        // keeps every producer's items in their original order, so it must be
+        // identical to the sources in size, values, and order.
         if (sourceData.equals(finalData)) {
             System.out.println("SUCCESS: Integrity Verified. Thread synchronization worked.");
         } else {
             System.out.println("FAILURE: Data Mismatch. Race condition occurred.");
         }
     }
-}
\ No newline at end of file
+}
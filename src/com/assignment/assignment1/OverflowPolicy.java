@@ -0,0 +1,24 @@
+package com.assignment.assignment1;
+
+/**
+ * What {@link CustomBlockingBuffer} does when a producer adds an item to a full buffer.
+ * <p>
+ * {@link #BLOCK} is the classic bounded-buffer behaviour. The other policies never wait,
+ * which keeps producer latency bounded when consumers slow down, at the cost of losing
+ * (or rejecting) data. Dropped items are counted, see {@link CustomBlockingBuffer#getDroppedCount()}
+ * and {@link BufferMetrics#onDropped(int)}.
+ */
+public enum OverflowPolicy {
+
+    /** Wait until a consumer frees space (or until the timeout of a timed call elapses). */
+    BLOCK,
+
+    /** Discard the item being added; the buffer keeps its current contents. */
+    DROP_NEWEST,
+
+    /** Discard the oldest item in the buffer to make room for the new one. */
+    DROP_OLDEST,
+
+    /** Reject the item with an {@link IllegalStateException}. */
+    FAIL
+}
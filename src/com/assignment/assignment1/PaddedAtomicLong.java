@@ -0,0 +1,69 @@
+package com.assignment.assignment1;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * An atomic long that occupies a cache line of its own.
+ * <p>
+ * Hot counters that are written by different threads (the head and tail of a
+ * ring buffer, or the counters of neighbouring shards) would otherwise often be
+ * allocated next to each other, and every CAS on one would invalidate the other
+ * in all cores' caches ("false sharing").
+ * <p>
+ * The JVM lays out superclass fields before subclass fields, so the value sits in the
+ * middle of a three-level hierarchy: seven longs of {@link PaddedAtomicLongPadding} in
+ * front of it and seven longs after it. That keeps at least 56 bytes between the value
+ * and any field of a neighbouring object on either side. (It cannot extend
+ * {@code AtomicLong}: the value would then come first, with nothing in front of it.)
+ */
+final class PaddedAtomicLong extends PaddedAtomicLongValue {
+
+    // Never read or written; only there to fill the rest of the cache line
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedAtomicLongValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    PaddedAtomicLong() {
+    }
+
+    /**
+     * @return The current value (volatile read).
+     */
+    long get() {
+        return value;
+    }
+
+    /**
+     * Sets the value to {@code update} if it currently equals {@code expected}.
+     *
+     * @return True if successful.
+     */
+    boolean compareAndSet(long expected, long update) {
+        return VALUE.compareAndSet(this, expected, update);
+    }
+}
+
+/**
+ * Leading padding of {@link PaddedAtomicLong}: keeps the value away from the previous object.
+ */
+abstract class PaddedAtomicLongPadding {
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * The value of {@link PaddedAtomicLong}, between the two paddings.
+ */
+abstract class PaddedAtomicLongValue extends PaddedAtomicLongPadding {
+    volatile long value;
+}
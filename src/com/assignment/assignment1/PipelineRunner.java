@@ -0,0 +1,274 @@
+package com.assignment.assignment1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Orchestrates N {@link Producer}s and M {@link Consumer}s over one shared buffer.
+ * <p>
+ * Solves the two problems of wiring several workers to a {@link SharedBuffer} by hand:
+ * <ul>
+ * <li><b>Termination:</b> every Producer calls {@code setDone(true)} when it finishes.
+ *     Each Producer gets its own view of the buffer, and the real buffer is only
+ *     marked done once all registered producers have counted down, so Consumers
+ *     never exit while another Producer is still running.</li>
+ * <li><b>Merging:</b> items travel as {@link Sequenced} envelopes (producer index +
+ *     position). Each Consumer's view records what it took, and after the run the
+ *     envelopes are put back into per-producer order in O(n), without sorting.</li>
+ * </ul>
+ * Workers run on the supplied {@link ExecutorService} instead of hand-built threads.
+ * Producers and Consumers block on the buffer, so the executor must be able to run
+ * all N + M workers at the same time.
+ *
+ * @param <T> The type of the items moved from the producers to the consumers.
+ */
+public class PipelineRunner<T> {
+
+    private final ExecutorService executor;
+    private final Supplier<? extends SharedBuffer<Sequenced<T>>> bufferFactory;
+    private final int batchSize;
+
+    /**
+     * @param executor      Runs the workers; the caller owns its lifecycle.
+     * @param bufferFactory Creates a fresh buffer for every run (completion is one-shot).
+     */
+    public PipelineRunner(ExecutorService executor, Supplier<? extends SharedBuffer<Sequenced<T>>> bufferFactory) {
+        this(executor, bufferFactory, 1);
+    }
+
+    /**
+     * @param executor      Runs the workers; the caller owns its lifecycle.
+     * @param bufferFactory Creates a fresh buffer for every run (completion is one-shot).
+     * @param batchSize     Batch size passed to every Producer and Consumer (1 = item-by-item).
+     */
+    public PipelineRunner(ExecutorService executor, Supplier<? extends SharedBuffer<Sequenced<T>>> bufferFactory,
+                          int batchSize) {
+        this.executor = executor;
+        this.bufferFactory = bufferFactory;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs one Producer per source list and the given number of Consumers until all data is moved.
+     *
+     * @param sources   One source list per Producer.
+     * @param consumers The number of Consumers.
+     * @return Every consumed item, grouped by producer (in source order) and in each producer's original order.
+     * @throws ExecutionException   If a worker failed.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     * @throws IllegalStateException If items were lost or duplicated on the way.
+     */
+    public List<T> run(List<? extends List<? extends T>> sources, int consumers) throws InterruptedException, ExecutionException {
+        List<List<T>> perProducer = runPerProducer(sources, consumers);
+        List<T> merged = new ArrayList<>();
+        perProducer.forEach(merged::addAll);
+        return merged;
+    }
+
+    /**
+     * Same as {@link #run}, but keeps the output of every producer in its own list.
+     */
+    public List<List<T>> runPerProducer(List<? extends List<? extends T>> sources, int consumers)
+            throws InterruptedException, ExecutionException {
+        if (sources.isEmpty() || consumers <= 0) {
+            throw new IllegalArgumentException("Need at least one producer and one consumer");
+        }
+        checkExecutorSize(sources.size() + consumers);
+
+        SharedBuffer<Sequenced<T>> buffer = bufferFactory.get();
+        AtomicInteger runningProducers = new AtomicInteger(sources.size());
+
+        // Completion order, not submission order: the first worker to fail is seen at once
+        CompletionService<Void> completions = new ExecutorCompletionService<>(executor);
+        List<ConsumerView<T>> consumerViews = new ArrayList<>(consumers);
+        List<Future<?>> tasks = new ArrayList<>(sources.size() + consumers);
+        for (int c = 0; c < consumers; c++) {
+            ConsumerView<T> view = new ConsumerView<>(buffer);
+            consumerViews.add(view);
+            tasks.add(completions.submit(new Consumer<>(view, new ArrayList<>(), batchSize), null));
+        }
+        for (int p = 0; p < sources.size(); p++) {
+            ProducerView<T> view = new ProducerView<>(buffer, p, runningProducers);
+            tasks.add(completions.submit(new Producer<T>(view, Collections.unmodifiableList(sources.get(p)), batchSize), null));
+        }
+
+        try {
+            for (int finished = 0; finished < tasks.size(); finished++) {
+                completions.take().get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            // Do not leave the remaining workers blocked on the buffer
+            tasks.forEach(task -> task.cancel(true));
+            throw e;
+        }
+        return merge(sources, consumerViews);
+    }
+
+    /**
+     * Puts every consumed envelope back at its producer/sequence position.
+     */
+    private static <T> List<List<T>> merge(List<? extends List<? extends T>> sources, List<ConsumerView<T>> consumerViews) {
+        List<List<T>> result = new ArrayList<>(sources.size());
+        boolean[][] delivered = new boolean[sources.size()][];
+        for (int p = 0; p < sources.size(); p++) {
+            result.add(new ArrayList<>(Collections.nCopies(sources.get(p).size(), null)));
+            delivered[p] = new boolean[sources.get(p).size()];
+        }
+        int received = 0;
+        for (ConsumerView<T> view : consumerViews) {
+            for (Sequenced<T> item : view.taken) {
+                // Tracked apart from the slots: null is a valid item
+                if (delivered[item.getProducer()][item.getSequence()]) {
+                    throw new IllegalStateException("Item delivered twice: " + item);
+                }
+                delivered[item.getProducer()][item.getSequence()] = true;
+                result.get(item.getProducer()).set(item.getSequence(), item.getValue());
+                received++;
+            }
+        }
+        int expected = sources.stream().mapToInt(List::size).sum();
+        if (received != expected) {
+            throw new IllegalStateException("Lost " + (expected - received) + " of " + expected + " items");
+        }
+        result.replaceAll(Collections::unmodifiableList);
+        return result;
+    }
+
+    // Fail fast instead of deadlocking when the pool cannot run every worker at once
+    private void checkExecutorSize(int workers) {
+        if (executor instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) executor).getMaximumPoolSize() < workers) {
+            throw new IllegalArgumentException("Executor runs at most " + ((ThreadPoolExecutor) executor).getMaximumPoolSize()
+                    + " threads, but the pipeline needs " + workers);
+        }
+    }
+
+    /**
+     * The write side of the buffer as seen by one Producer: wraps items into envelopes
+     * and turns {@code setDone(true)} into a count-down of the running producers.
+     */
+    private static final class ProducerView<T> implements WritableBuffer<T> {
+        private final WritableBuffer<Sequenced<T>> buffer;
+        private final int producer;
+        private final AtomicInteger runningProducers;
+        private int nextSequence = 0;
+        private boolean finished = false;
+
+        ProducerView(WritableBuffer<Sequenced<T>> buffer, int producer, AtomicInteger runningProducers) {
+            this.buffer = buffer;
+            this.producer = producer;
+            this.runningProducers = runningProducers;
+        }
+
+        @Override
+        public void produce(T item) throws InterruptedException {
+            buffer.produce(new Sequenced<>(producer, nextSequence, item));
+            nextSequence++;
+        }
+
+        @Override
+        public void produceAll(Collection<? extends T> items) throws InterruptedException {
+            buffer.produceAll(wrap(items));
+            nextSequence += items.size();
+        }
+
+        @Override
+        public int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException {
+            int produced = buffer.produceAll(wrap(items), timeout, unit);
+            nextSequence += produced; // Only the leading items were added
+            return produced;
+        }
+
+        @Override
+        public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+            if (!buffer.offer(new Sequenced<>(producer, nextSequence, item), timeout, unit)) {
+                return false;
+            }
+            nextSequence++;
+            return true;
+        }
+
+        @Override
+        public void setDone(boolean done) {
+            if (done && !finished) {
+                finished = true;
+                // The last producer to finish completes the real buffer
+                if (runningProducers.decrementAndGet() == 0) {
+                    buffer.setDone(true);
+                }
+            }
+        }
+
+        private List<Sequenced<T>> wrap(Collection<? extends T> items) {
+            List<Sequenced<T>> envelopes = new ArrayList<>(items.size());
+            int sequence = nextSequence;
+            for (T item : items) {
+                envelopes.add(new Sequenced<>(producer, sequence++, item));
+            }
+            return envelopes;
+        }
+    }
+
+    /**
+     * The read side of the buffer as seen by one Consumer: unwraps envelopes and remembers them for the merge.
+     */
+    private static final class ConsumerView<T> implements ReadableBuffer<T> {
+        private final ReadableBuffer<Sequenced<T>> buffer;
+        private final List<Sequenced<T>> taken = new ArrayList<>();
+        private final List<Sequenced<T>> batch = new ArrayList<>();
+
+        ConsumerView(ReadableBuffer<Sequenced<T>> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public T consume() throws InterruptedException {
+            Sequenced<T> item = buffer.consume();
+            if (item == null) {
+                return null;
+            }
+            taken.add(item);
+            return item.getValue();
+        }
+
+        @Override
+        public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+            Sequenced<T> item = buffer.poll(timeout, unit);
+            if (item == null) {
+                return null;
+            }
+            taken.add(item);
+            return item.getValue();
+        }
+
+        @Override
+        public int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException {
+            return unwrap(buffer.drainTo(batch, maxItems), destination);
+        }
+
+        @Override
+        public int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return unwrap(buffer.drainTo(batch, maxItems, timeout, unit), destination);
+        }
+
+        private int unwrap(int removed, Collection<? super T> destination) {
+            for (Sequenced<T> item : batch) {
+                taken.add(item);
+                destination.add(item.getValue());
+            }
+            batch.clear();
+            return removed;
+        }
+    }
+}
@@ -10,11 +10,20 @@ import java.util.List;
  * 2. Simulate work (processing time).
  * 3. Place items into the SharedBuffer.
  * 4. Signal when production is complete.
+ * <p>
+ * With a batch size greater than 1, the Producer hands over whole slices of the
+ * source via {@link WritableBuffer#produceAll}, paying one lock acquisition and one
+ * notification per batch instead of per item.
+ *
+ * @param <T> The type of the items produced.
  */
-public class Producer extends AbstractWorker {
+public class Producer<T> extends AbstractWorker<WritableBuffer<T>> {
 
     // The source of data to be produced (e.g., a list of numbers)
-    private final List<Integer> source;
+    private final List<T> source;
+
+    // Number of items handed to the buffer per call (1 = item-by-item mode)
+    private final int batchSize;
 
     /**
      * Constructor for the Producer.
@@ -22,9 +31,24 @@ public class Producer extends AbstractWorker {
      * @param buffer The shared buffer to write data into.
      * @param source The list of items to be processed and sent to the buffer.
      */
-    public Producer(SharedBuffer<Integer> buffer, List<Integer> source) {
+    public Producer(WritableBuffer<T> buffer, List<T> source) {
+        this(buffer, source, 1);
+    }
+
+    /**
+     * Constructor for a batching Producer.
+     *
+     * @param buffer    The shared buffer to write data into.
+     * @param source    The list of items to be processed and sent to the buffer.
+     * @param batchSize The number of items sent to the buffer per call.
+     */
+    public Producer(WritableBuffer<T> buffer, List<T> source, int batchSize) {
         super(buffer); // Pass buffer to parent AbstractWorker
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
         this.source = source;
+        this.batchSize = batchSize;
     }
 
     /**
@@ -33,25 +57,43 @@ public class Producer extends AbstractWorker {
     @Override
     public void run() {
         try {
-            // Iterate through every item in the source list
-            for (Integer item : source) {
-                // Simulate some time-consuming task (e.g., reading from DB or network)
-                Thread.sleep(100);
-
-                // Attempt to put the item into the shared buffer.
-                // If the buffer is full, this call will BLOCK (wait) until space is available.
-                buffer.produce(item);
-            }
+            if (batchSize > 1) {
+                produceBatched();
+            } else {
+                // Iterate through every item in the source list
+                for (T item : source) {
+                    // Simulate some time-consuming task (e.g., reading from DB or network)
+                    Thread.sleep(100);
 
-            // Critical Step: Signal the buffer that no more data is coming.
-            // This prevents the Consumer from waiting forever (deadlock).
-            buffer.setDone(true);
+                    // Attempt to put the item into the shared buffer.
+                    // If the buffer is full, this call will BLOCK (wait) until space is available.
+                    buffer.produce(item);
+                }
+            }
 
             System.out.println("Producer: Job Finished.");
 
         } catch (InterruptedException e) {
             // Handle thread interruption (e.g., if the application is stopping)
             Thread.currentThread().interrupt();
+        } finally {
+            // Critical Step: Signal the buffer that no more data is coming.
+            // This prevents the Consumer from waiting forever (deadlock),
+            // even if this Producer failed half-way.
+            buffer.setDone(true);
+        }
+    }
+
+    /**
+     * Batch mode: hands the source to the buffer in slices of batchSize items.
+     */
+    private void produceBatched() throws InterruptedException {
+        for (int from = 0; from < source.size(); from += batchSize) {
+            // Simulate one round trip fetching a whole batch (e.g., a paged DB query)
+            Thread.sleep(100);
+
+            // Hand over the whole slice at once. Blocks only while the buffer is full.
+            buffer.produceAll(source.subList(from, Math.min(from + batchSize, source.size())));
         }
     }
 }
\ No newline at end of file
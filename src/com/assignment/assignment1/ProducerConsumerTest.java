@@ -2,9 +2,20 @@ package com.assignment.assignment1;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,17 +34,18 @@ public class ProducerConsumerTest {
     // OBJECTIVE 1: Thread Synchronization
     // Proof: We move data. If synchronization is broken, data order is lost or size mismatches.
     // ---------------------------------------------------------------
-    @Test
-    void testThreadSynchronization() throws InterruptedException {
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "splitlock"})
+    void testThreadSynchronization(String kind) throws InterruptedException {
         int capacity = 5;
         // Create a large dataset to force many context switches
         List<Integer> source = new ArrayList<>();
         for (int i = 0; i < 100; i++) source.add(i);
         List<Integer> dest = new ArrayList<>();
 
-        SharedBuffer<Integer> buffer = new CustomBlockingBuffer<>(capacity);
-        Thread t1 = new Thread(new Producer(buffer, source));
-        Thread t2 = new Thread(new Consumer(buffer, dest));
+        SharedBuffer<Integer> buffer = newBuffer(kind, capacity);
+        Thread t1 = new Thread(new Producer<>(buffer, source));
+        Thread t2 = new Thread(new Consumer<>(buffer, dest));
 
         t1.start();
         t2.start();
@@ -48,16 +60,17 @@ public class ProducerConsumerTest {
     // OBJECTIVE 2: Concurrent Programming
     // Proof: Both threads run alive at the same time without deadlocking immediately.
     // ---------------------------------------------------------------
-    @Test
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "splitlock"})
     @Timeout(value = 5, unit = TimeUnit.SECONDS) // INCREASED TO 5 SECONDS
-    void testConcurrentProgramming() throws InterruptedException {
-        SharedBuffer<Integer> buffer = new CustomBlockingBuffer<>(2);
+    void testConcurrentProgramming(String kind) throws InterruptedException {
+        SharedBuffer<Integer> buffer = newBuffer(kind, 2);
         List<Integer> source = new ArrayList<>();
         // Process 10 items (takes approx 2.5 seconds due to Consumer sleep)
         for (int i = 0; i < 10; i++) source.add(i);
 
-        Producer p = new Producer(buffer, source);
-        Consumer c = new Consumer(buffer, new ArrayList<>());
+        Producer<Integer> p = new Producer<>(buffer, source);
+        Consumer<Integer> c = new Consumer<>(buffer, new ArrayList<>());
 
         Thread t1 = new Thread(p);
         Thread t2 = new Thread(c);
@@ -77,10 +90,11 @@ public class ProducerConsumerTest {
     // OBJECTIVE 3: Blocking Queues (Producer Side)
     // Proof: Producer attempts to write to FULL buffer and must enter WAITING state.
     // ---------------------------------------------------------------
-    @Test
-    void testBlockingQueueProducer() throws InterruptedException {
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "splitlock"})
+    void testBlockingQueueProducer(String kind) throws InterruptedException {
         // Capacity 1
-        SharedBuffer<Integer> buffer = new CustomBlockingBuffer<>(1);
+        SharedBuffer<Integer> buffer = newBuffer(kind, 1);
         buffer.produce(999); // Buffer is now FULL
 
         // Try to add a second item (Should Block)
@@ -107,10 +121,11 @@ public class ProducerConsumerTest {
     // OBJECTIVE 4: Wait/Notify Mechanism (Consumer Side)
     // Proof: Consumer attempts to read from EMPTY buffer and must enter WAITING state.
     // ---------------------------------------------------------------
-    @Test
-    void testWaitNotifyConsumer() throws InterruptedException {
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "splitlock"})
+    void testWaitNotifyConsumer(String kind) throws InterruptedException {
         // Buffer is EMPTY
-        SharedBuffer<Integer> buffer = new CustomBlockingBuffer<>(5);
+        SharedBuffer<Integer> buffer = newBuffer(kind, 5);
 
         // Try to consume immediately (Should Block/Wait)
         Thread consumerThread = new Thread(() -> {
@@ -131,4 +146,457 @@ public class ProducerConsumerTest {
 
         consumerThread.interrupt(); // Cleanup
     }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 5: Alternative Buffer Implementations
+    // Proof: Every SharedBuffer implementation moves data from many producers
+    // to many consumers without losing or duplicating a single item.
+    // ---------------------------------------------------------------
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "lockfree", "splitlock", "sharded"})
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testMultiProducerMultiConsumer(String kind) throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 5_000;
+        SharedBuffer<Integer> buffer = newBuffer(kind, 16);
+        List<Integer> dest = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> producerThreads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            producerThreads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) buffer.produce(base + i);
+                } catch (InterruptedException e) {}
+            }));
+        }
+        List<Thread> consumerThreads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            consumerThreads.add(new Thread(() -> {
+                try {
+                    Integer item;
+                    while ((item = buffer.consume()) != null) dest.add(item);
+                } catch (InterruptedException e) {}
+            }));
+        }
+
+        producerThreads.forEach(Thread::start);
+        consumerThreads.forEach(Thread::start);
+        for (Thread t : producerThreads) t.join();
+        buffer.setDone(true); // Only signal once ALL producers are finished
+        for (Thread t : consumerThreads) t.join();
+
+        // Assertion: every item arrived exactly once
+        List<Integer> sorted = new ArrayList<>(dest);
+        Collections.sort(sorted);
+        assertEquals(producers * perProducer, sorted.size(), "Items were lost or duplicated");
+        for (int i = 0; i < sorted.size(); i++) assertEquals(i, sorted.get(i).intValue());
+    }
+
+    @Test
+    void testLockFreeBufferBlocksWhenFull() throws InterruptedException {
+        // Capacity 1 is already a power of two, so the buffer is full after one item
+        SharedBuffer<Integer> buffer = new LockFreeRingBuffer<>(1);
+        buffer.produce(999);
+
+        Thread producerThread = new Thread(() -> {
+            try {
+                buffer.produce(888);
+            } catch (InterruptedException e) {}
+        });
+        producerThread.start();
+        Thread.sleep(100); // Give it time to finish spinning and park
+
+        // Verify it parked instead of completing
+        assertTrue(producerThread.isAlive(), "Producer did not block on full ring buffer!");
+        assertEquals(999, buffer.consume().intValue());
+        producerThread.join(1000);
+        assertEquals(888, buffer.consume().intValue());
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 6: Batch Transfer
+    // Proof: produceAll/drainTo move whole batches in order, and drainTo
+    // reports -1 once production is finished and the buffer is drained.
+    // ---------------------------------------------------------------
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "lockfree", "splitlock", "sharded"})
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testBatchTransfer(String kind) throws InterruptedException {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) source.add(i);
+        List<Integer> dest = new ArrayList<>();
+
+        // Batches larger than the capacity force produceAll to wait part-way through
+        SharedBuffer<Integer> buffer = newBuffer(kind, 64);
+        Thread t1 = new Thread(new Producer<>(buffer, source, 256));
+        Thread t2 = new Thread(new Consumer<>(buffer, dest, 256));
+
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+
+        assertEquals(source, dest, "Batch transfer lost or reordered items.");
+
+        // Timed variants: nothing to take, then a full buffer rejects the overflow
+        SharedBuffer<Integer> timed = newBuffer(kind, 4);
+        assertEquals(0, timed.drainTo(new ArrayList<>(), 10, 10, TimeUnit.MILLISECONDS));
+        assertEquals(4, timed.produceAll(source.subList(0, 6), 10, TimeUnit.MILLISECONDS));
+        timed.setDone(true);
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, timed.drainTo(drained, 10));
+        assertEquals(source.subList(0, 4), drained);
+        assertEquals(-1, timed.drainTo(drained, 10));
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 7: Primitive Pipeline
+    // Proof: The int specialization moves data in order without boxing,
+    // and signals completion once the buffer is drained.
+    // ---------------------------------------------------------------
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testPrimitiveIntPipeline() throws InterruptedException {
+        int[] source = new int[100_000];
+        for (int i = 0; i < source.length; i++) source[i] = i;
+        IntArraySink sink = new IntArraySink(16); // Small on purpose: the sink must grow
+
+        IntSharedBuffer buffer = new IntBlockingBuffer(3);
+        Thread t1 = new Thread(new IntProducer(buffer, source));
+        Thread t2 = new Thread(new IntConsumer(buffer, sink));
+
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+
+        assertArrayEquals(source, sink.toArray(), "Primitive pipeline lost or reordered items.");
+
+        // Batches stop at the limit, wrap around the ring, and -1 (not an exception) ends the stream
+        IntSharedBuffer direct = new IntBlockingBuffer(4);
+        IntArraySink drained = new IntArraySink(8);
+        for (int i = 0; i < 3; i++) direct.produce(i);
+        assertEquals(2, direct.drainTo(drained, 2));
+        for (int i = 3; i < 6; i++) direct.produce(i);
+        direct.setDone(true);
+        assertEquals(4, direct.drainTo(drained, 10));
+        assertEquals(-1, direct.drainTo(drained, 10));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5}, drained.toArray());
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testInterruptedIntProducerStillSignalsCompletion() throws InterruptedException {
+        // Capacity 1 and no consumer yet: the producer blocks on its second item
+        IntSharedBuffer buffer = new IntBlockingBuffer(1);
+        Thread producer = new Thread(new IntProducer(buffer, new int[] {1, 2, 3}));
+        producer.start();
+        while (producer.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        producer.interrupt();
+        producer.join();
+
+        // Without the completion signal this consumer would wait forever
+        IntArraySink sink = new IntArraySink(4);
+        Thread consumer = new Thread(new IntConsumer(buffer, sink));
+        consumer.start();
+        consumer.join();
+        assertArrayEquals(new int[] {1}, sink.toArray());
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 8: Buffer Metrics
+    // Proof: The metrics listener sees every produced/consumed item and
+    // records a wait when a producer blocks on a full buffer.
+    // ---------------------------------------------------------------
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "splitlock"})
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testBufferMetrics(String kind) throws InterruptedException {
+        CounterBufferMetrics metrics = new CounterBufferMetrics();
+        SharedBuffer<Integer> buffer = kind.equals("monitor")
+                ? new CustomBlockingBuffer<>(4, metrics)
+                : new SplitLockBlockingBuffer<>(4, metrics);
+
+        // A slow batching consumer behind a capacity-4 buffer forces the producer to wait
+        List<Integer> dest = new ArrayList<>();
+        Thread consumerThread = new Thread(new Consumer<>(buffer, dest, 8));
+        consumerThread.start();
+
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 20; i++) source.add(i);
+        buffer.produceAll(source.subList(0, 10));
+        for (int i = 10; i < 20; i++) buffer.produce(i);
+        buffer.setDone(true);
+        consumerThread.join();
+
+        assertEquals(source, dest);
+        assertEquals(20, metrics.getProduced(), "Produced counter mismatch");
+        assertEquals(20, metrics.getConsumed(), "Consumed counter mismatch");
+        assertTrue(metrics.getFullWaits() > 0, "Producer should have waited on the full buffer");
+        assertTrue(metrics.getFullWaitNanos() > 0, "Full wait time was not recorded");
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 9: Multi-Producer Orchestration
+    // Proof: With several producers, consumers keep running until the LAST
+    // producer finishes, and the merged output keeps per-producer order.
+    // ---------------------------------------------------------------
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testPipelineRunnerMultiProducer() throws InterruptedException, ExecutionException {
+        List<List<Integer>> sources = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            List<Integer> source = new ArrayList<>();
+            // Different lengths: the first producer finishes long before the others
+            for (int i = 0; i < 8 * (p + 1); i++) source.add(p * 1000 + i);
+            sources.add(source);
+            expected.addAll(source);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            PipelineRunner<Integer> runner = new PipelineRunner<>(executor, () -> new SplitLockBlockingBuffer<>(4), 4);
+            assertEquals(expected, runner.run(sources, 3), "Items lost or per-producer order broken.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testPipelineRunnerReportsFailedProducer() throws InterruptedException {
+        // The second item cannot be read: the producer dies half-way through its source
+        List<Integer> failing = new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                if (index == 1) throw new IllegalStateException("source unreadable");
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return 3;
+            }
+        };
+        List<List<Integer>> sources = List.of(List.of(1, 2, 3, 4, 5, 6, 7, 8), failing);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PipelineRunner<Integer> runner = new PipelineRunner<>(executor, () -> new SplitLockBlockingBuffer<>(4), 4);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> runner.run(sources, 2),
+                    "A failed producer must fail the run instead of hanging it.");
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testPipelineRunnerCarriesAnyPayload() throws InterruptedException, ExecutionException {
+        // Not only Integers: any item type travels, null items included
+        List<List<String>> sources = List.of(
+                List.of("a", "b", "c", "d", "e"),
+                Arrays.asList("x", null, "z"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PipelineRunner<String> runner = new PipelineRunner<>(executor, () -> new CustomBlockingBuffer<>(2), 2);
+            assertEquals(sources, runner.runPerProducer(sources, 2), "Items lost or per-producer order broken.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 10: Virtual Threads
+    // Proof: A thousand blocking producers run on virtual threads (one per
+    // worker, no pool) and the Lock/Condition buffer still moves every item.
+    // ---------------------------------------------------------------
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testVirtualThreadProducers() throws InterruptedException, ExecutionException {
+        List<List<Integer>> sources = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int p = 0; p < 1000; p++) {
+            sources.add(List.of(p));
+            expected.add(p);
+        }
+
+        ExecutorService executor = WorkerThreadMode.VIRTUAL.newExecutor("VT-", 1004);
+        try {
+            PipelineRunner<Integer> runner = new PipelineRunner<>(executor, () -> new CustomBlockingBuffer<>(256), 256);
+            assertEquals(expected, runner.run(sources, 4), "Items lost on virtual threads.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 11: Timeouts and Backpressure
+    // Proof: offer/poll give up after the timeout instead of blocking forever,
+    // and the overflow policies shed load without ever blocking the producer.
+    // ---------------------------------------------------------------
+    @ParameterizedTest
+    @ValueSource(strings = {"monitor", "splitlock", "lockfree", "sharded"})
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testTimedOfferAndPoll(String kind) throws InterruptedException {
+        SharedBuffer<Integer> buffer = newBuffer(kind, 1);
+
+        assertTrue(buffer.offer(1, 0, TimeUnit.MILLISECONDS), "Offer into free space must succeed immediately.");
+        assertFalse(buffer.offer(2, 50, TimeUnit.MILLISECONDS), "Offer into a full buffer must time out.");
+        assertEquals(1, buffer.poll(50, TimeUnit.MILLISECONDS).intValue());
+        assertNull(buffer.poll(50, TimeUnit.MILLISECONDS), "Poll on an empty buffer must time out.");
+
+        buffer.setDone(true);
+        assertNull(buffer.poll(1, TimeUnit.MINUTES), "Poll must return at once when production is done.");
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testOverflowPolicies() throws InterruptedException {
+        CounterBufferMetrics metrics = new CounterBufferMetrics();
+        CustomBlockingBuffer<Integer> dropNewest = new CustomBlockingBuffer<>(2, OverflowPolicy.DROP_NEWEST, metrics);
+        dropNewest.produceAll(List.of(1, 2, 3, 4));
+        assertEquals(2, dropNewest.getDroppedCount());
+        assertEquals(2, metrics.getDropped());
+        assertEquals(List.of(1, 2), drainAll(dropNewest));
+
+        CustomBlockingBuffer<Integer> dropOldest = new CustomBlockingBuffer<>(2, OverflowPolicy.DROP_OLDEST);
+        for (int i = 1; i <= 4; i++) dropOldest.produce(i);
+        assertTrue(dropOldest.offer(5, 0, TimeUnit.MILLISECONDS), "DROP_OLDEST always makes room.");
+        assertEquals(3, dropOldest.getDroppedCount());
+        assertEquals(List.of(4, 5), drainAll(dropOldest));
+
+        CustomBlockingBuffer<Integer> fail = new CustomBlockingBuffer<>(1, OverflowPolicy.FAIL);
+        fail.produce(1);
+        assertThrows(IllegalStateException.class, () -> fail.produce(2));
+        assertEquals(0, fail.getDroppedCount(), "Rejected items are not counted as dropped.");
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 12: Disk Spilling
+    // Proof: A burst far larger than the in-memory part never blocks the
+    // producer, spills to segment files, and comes out in FIFO order.
+    // ---------------------------------------------------------------
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testSpillingBufferKeepsFifoOrder() throws Exception {
+        Path directory = Files.createTempDirectory("spill-test");
+        // 64-byte segments hold 8 records each, so the burst spans many files
+        try (SpillingBuffer<Integer> buffer = new SpillingBuffer<>(4, directory, Serializer.INTEGER, 64, BufferMetrics.NONE)) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                buffer.produce(i); // Would block forever on a bounded buffer without a consumer
+                expected.add(i);
+            }
+            assertEquals(996, buffer.getSpilledCount());
+
+            List<Integer> received = new ArrayList<>();
+            Thread consumer = new Thread(new Consumer<>(buffer, received, 256));
+            consumer.start();
+            buffer.setDone(true);
+            consumer.join();
+
+            assertEquals(expected, received, "Spilled items lost or reordered.");
+            assertEquals(0, buffer.getSpilledCount());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(0, files.count(), "Consumed segments must be deleted.");
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testSpillingBufferReusesDrainedSegments() throws Exception {
+        Path directory = Files.createTempDirectory("spill-test");
+        try (SpillingBuffer<Integer> buffer = new SpillingBuffer<>(4, directory, Serializer.INTEGER, 64, BufferMetrics.NONE)) {
+            for (int i = 0; i < 20; i++) buffer.produce(i); // 4 in memory, two full 8-record segments
+            List<Integer> received = new ArrayList<>();
+            buffer.drainTo(received, 12); // Memory plus the whole first segment
+            List<Path> before;
+            try (Stream<Path> files = Files.list(directory)) {
+                before = files.sorted().toList();
+            }
+
+            for (int i = 20; i < 28; i++) buffer.produce(i); // Needs a third segment
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(before, files.sorted().toList(), "The drained segment must be reused, not replaced.");
+            }
+
+            buffer.setDone(true);
+            while (buffer.drainTo(received, 100) >= 0) {
+                // Drain the rest
+            }
+            for (int i = 0; i < 28; i++) assertEquals(i, received.get(i).intValue(), "Spilled items lost or reordered.");
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(0, files.count(), "Segments must be deleted once the disk part is empty.");
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 13: Sharding and Work Stealing
+    // Proof: Consumers steal items that landed on other threads' shards, and
+    // items with the same key stay in order even when different threads add them.
+    // ---------------------------------------------------------------
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.SECONDS)
+    void testShardedBufferPerKeyOrdering() throws InterruptedException {
+        // Key = value % 2: even and odd items are ordered independently
+        ShardedBuffer<Integer> buffer = new ShardedBuffer<>(4, 16, item -> item % 2);
+        for (int i = 0; i < 8; i++) {
+            int item = i;
+            // A new thread per item gets a new home shard, so only the key keeps the order
+            Thread producer = new Thread(() -> {
+                try {
+                    buffer.produce(item);
+                } catch (InterruptedException e) {}
+            });
+            producer.start();
+            producer.join();
+        }
+        buffer.setDone(true);
+
+        List<Integer> received = new ArrayList<>();
+        Thread consumer = new Thread(new Consumer<>(buffer, received, 16));
+        consumer.start();
+        consumer.join();
+
+        assertEquals(8, received.size(), "Consumer did not steal every item.");
+        assertEquals(List.of(0, 2, 4, 6), received.stream().filter(i -> i % 2 == 0).toList());
+        assertEquals(List.of(1, 3, 5, 7), received.stream().filter(i -> i % 2 == 1).toList());
+    }
+
+    // Takes everything out of a finished buffer
+    private static List<Integer> drainAll(SharedBuffer<Integer> buffer) throws InterruptedException {
+        buffer.setDone(true);
+        List<Integer> items = new ArrayList<>();
+        while (buffer.drainTo(items, Integer.MAX_VALUE) > 0) {
+            // Keep draining until the buffer reports -1
+        }
+        return items;
+    }
+
+    /**
+     * Creates a buffer of the requested implementation for parameterized tests.
+     */
+    private static SharedBuffer<Integer> newBuffer(String kind, int capacity) {
+        switch (kind) {
+            case "monitor":   return new CustomBlockingBuffer<>(capacity);
+            case "lockfree":  return new LockFreeRingBuffer<>(capacity);
+            case "splitlock": return new SplitLockBlockingBuffer<>(capacity);
+            case "sharded":   return new ShardedBuffer<>(4, capacity); // capacity per shard
+            default: throw new IllegalArgumentException("Unknown buffer kind: " + kind);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.assignment.assignment1;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The consumer side of a {@link SharedBuffer}: taking items until production is done.
+ * <p>
+ * A {@link Consumer} only holds this side, so it can neither add items nor signal completion.
+ *
+ * @param <T> The type of data elements stored in the buffer.
+ */
+public interface ReadableBuffer<T> {
+
+    /**
+     * Removes and returns an item from the buffer.
+     * <p>
+     * If the buffer is empty, the calling thread must wait (block)
+     * until an item becomes available.
+     *
+     * @return The next item from the buffer, or null if production is done.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    T consume() throws InterruptedException;
+
+    /**
+     * Removes and returns an item from the buffer, waiting at most the given time
+     * for one to become available.
+     *
+     * @param timeout How long to wait before giving up.
+     * @param unit    The unit of the timeout argument.
+     * @return The next item, or null if the timeout elapsed or production is done
+     *         and the buffer is drained.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Removes up to {@code maxItems} items from the buffer and adds them to the destination.
+     * <p>
+     * If the buffer is empty, the calling thread waits (blocks) until at least
+     * one item becomes available, then takes everything available up to the limit.
+     *
+     * @param destination The collection that receives the items, in FIFO order.
+     * @param maxItems    The maximum number of items to transfer (must be positive).
+     * @return The number of items transferred, or -1 if production is done and the buffer is drained.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException;
+
+    /**
+     * Removes up to {@code maxItems} items from the buffer and adds them to the destination,
+     * waiting at most the given time for the first item.
+     *
+     * @param destination The collection that receives the items, in FIFO order.
+     * @param maxItems    The maximum number of items to transfer (must be positive).
+     * @param timeout     How long to wait before giving up.
+     * @param unit        The unit of the timeout argument.
+     * @return The number of items transferred (0 if the timeout elapsed),
+     *         or -1 if production is done and the buffer is drained.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit) throws InterruptedException;
+}
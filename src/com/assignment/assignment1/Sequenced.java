@@ -0,0 +1,36 @@
+package com.assignment.assignment1;
+
+/**
+ * An item tagged with the producer that created it and its position in that producer's output.
+ * <p>
+ * {@link PipelineRunner} moves these envelopes through the shared buffer so
+ * that consumer outputs can be merged back into per-producer order.
+ *
+ * @param <T> The type of the wrapped item.
+ */
+public final class Sequenced<T> {
+
+    private final int producer;
+    private final int sequence;
+    private final T value;
+
+    /**
+     * @param producer The index of the producer that created the item.
+     * @param sequence The position of the item in that producer's output (0-based).
+     * @param value    The item itself.
+     */
+    public Sequenced(int producer, int sequence, T value) {
+        this.producer = producer;
+        this.sequence = sequence;
+        this.value = value;
+    }
+
+    public int getProducer() { return producer; }
+    public int getSequence() { return sequence; }
+    public T getValue() { return value; }
+
+    @Override
+    public String toString() {
+        return "Sequenced{producer=" + producer + ", sequence=" + sequence + ", value=" + value + "}";
+    }
+}
@@ -0,0 +1,54 @@
+package com.assignment.assignment1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts buffer items to bytes and back, for buffers that move items off the heap
+ * (see {@link SpillingBuffer}).
+ * <p>
+ * Implementations must be stateless or thread-safe, and
+ * {@code deserialize(serialize(item))} must be equal to {@code item}.
+ *
+ * @param <T> The type of item being converted.
+ */
+public interface Serializer<T> {
+
+    /** Fixed 4-byte big-endian encoding of an Integer. */
+    Serializer<Integer> INTEGER = new Serializer<>() {
+        @Override
+        public byte[] serialize(Integer item) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(item).array();
+        }
+
+        @Override
+        public Integer deserialize(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    /** UTF-8 encoding of a String. */
+    Serializer<String> UTF8 = new Serializer<>() {
+        @Override
+        public byte[] serialize(String item) {
+            return item.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * @param item The item to convert (never null).
+     * @return The encoded item.
+     */
+    byte[] serialize(T item);
+
+    /**
+     * @param bytes Exactly the bytes returned by {@link #serialize} for one item.
+     * @return The decoded item.
+     */
+    T deserialize(byte[] bytes);
+}
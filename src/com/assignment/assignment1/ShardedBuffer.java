@@ -0,0 +1,257 @@
+package com.assignment.assignment1;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A buffer split into several {@link LockFreeRingBuffer} shards, with work stealing on the consumer side.
+ * <p>
+ * With one shared queue, every producer and consumer CASes the same head/tail
+ * counters, and those cache lines bounce between all cores. Here each thread is
+ * assigned a home shard (round-robin, on first use):
+ * <ul>
+ * <li>Producers only write to their home shard, so producers on different shards
+ *     never touch the same cache line (the shard counters are padded).</li>
+ * <li>Consumers take from their home shard first and only steal from the sibling
+ *     shards, in order, when their own is empty.</li>
+ * </ul>
+ * Ordering: there is no global FIFO order, but the items of one producer stay in
+ * order because they all go through the same shard. With a key function, items
+ * are routed by key instead of by producer, so items with equal keys leave the
+ * buffer in the order they were added, even when different threads produced them.
+ * <p>
+ * Waiting uses the ring buffer's spin-then-park idle strategy, and {@code setDone}
+ * has the usual semantics: consumers drain every shard, then receive null / -1.
+ * A sensible shard count is the number of cores.
+ *
+ * @param <T> The type of data stored in the buffer.
+ */
+public class ShardedBuffer<T> implements SharedBuffer<T> {
+
+    private final LockFreeRingBuffer<T>[] shards;
+
+    // Routes items by key instead of by producer; null when per-key ordering is not requested
+    private final Function<? super T, ?> keyFunction;
+
+    // Home shard of every thread, handed out round-robin
+    private final AtomicInteger nextHome = new AtomicInteger();
+    private final ThreadLocal<Integer> home;
+
+    // Flag to signal consumers to stop waiting when production is complete
+    private volatile boolean productionFinished = false;
+
+    /**
+     * Constructor to initialize a buffer that routes items by producer.
+     *
+     * @param shardCount    The number of shards (e.g. the number of cores).
+     * @param shardCapacity The capacity of every shard (rounded up to a power of two).
+     */
+    public ShardedBuffer(int shardCount, int shardCapacity) {
+        this(shardCount, shardCapacity, null);
+    }
+
+    /**
+     * Constructor to initialize a buffer that routes items by key.
+     *
+     * @param shardCount    The number of shards (e.g. the number of cores).
+     * @param shardCapacity The capacity of every shard (rounded up to a power of two).
+     * @param keyFunction   Extracts the ordering key of an item, or null to route by producer.
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedBuffer(int shardCount, int shardCapacity, Function<? super T, ?> keyFunction) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shards = (LockFreeRingBuffer<T>[]) new LockFreeRingBuffer<?>[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LockFreeRingBuffer<>(shardCapacity);
+        }
+        this.keyFunction = keyFunction;
+        this.home = ThreadLocal.withInitial(() -> Math.floorMod(nextHome.getAndIncrement(), shardCount));
+    }
+
+    /**
+     * @return The number of shards.
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Adds an item to its shard.
+     * Spins, then parks, while that shard is full.
+     */
+    @Override
+    public void produce(T item) throws InterruptedException {
+        shardFor(item).produce(item);
+    }
+
+    /**
+     * Adds an item to its shard, giving up once the timeout elapses while that shard is full.
+     */
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        return shardFor(item).offer(item, timeout, unit);
+    }
+
+    /**
+     * Removes an item, from the home shard first, then from the siblings.
+     *
+     * @return The next item, or null once production is done and every shard is drained.
+     */
+    @Override
+    public T consume() throws InterruptedException {
+        int idle = 0;
+        while (true) {
+            T item = tryConsume();
+            if (item != null) {
+                return item;
+            }
+            if (productionFinished) {
+                // Re-check after reading the flag: items published before setDone() must still be delivered
+                return tryConsume();
+            }
+            idle = LockFreeRingBuffer.idle(idle);
+        }
+    }
+
+    /**
+     * Removes an item, giving up once the timeout elapses while every shard is empty.
+     *
+     * @return The next item, or null on timeout or once production is done and every shard is drained.
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (true) {
+            T item = tryConsume();
+            if (item != null) {
+                return item;
+            }
+            if (productionFinished) {
+                return tryConsume();
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            idle = LockFreeRingBuffer.idle(idle);
+        }
+    }
+
+    /**
+     * Adds a batch of items. Without a key function the whole batch goes to the home shard.
+     */
+    @Override
+    public void produceAll(Collection<? extends T> items) throws InterruptedException {
+        if (keyFunction == null) {
+            shards[home.get()].produceAll(items);
+            return;
+        }
+        for (T item : items) {
+            shardFor(item).produce(item);
+        }
+    }
+
+    /**
+     * Adds a batch of items, giving up once the timeout elapses while a target shard is full.
+     */
+    @Override
+    public int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException {
+        if (keyFunction == null) {
+            return shards[home.get()].produceAll(items, timeout, unit);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int produced = 0;
+        for (T item : items) {
+            if (!shardFor(item).offer(item, deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return produced;
+            }
+            produced++;
+        }
+        return produced;
+    }
+
+    /**
+     * Removes every available item up to the limit (home shard first), waiting only for the first one.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException {
+        return drainTo(destination, maxItems, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes every available item up to the limit (home shard first), waiting at most the timeout for the first one.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idle = 0;
+        while (true) {
+            int removed = drainAvailable(destination, maxItems);
+            if (removed > 0) {
+                return removed;
+            }
+            if (productionFinished) {
+                removed = drainAvailable(destination, maxItems);
+                return removed > 0 ? removed : -1;
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return 0;
+            }
+            idle = LockFreeRingBuffer.idle(idle);
+        }
+    }
+
+    /**
+     * Signals that the producers have finished their job.
+     * Waiting consumers notice the flag on their next wake-up and drain/exit.
+     */
+    @Override
+    public void setDone(boolean done) {
+        this.productionFinished = done;
+    }
+
+    // The shard an item must go to: by key if requested, otherwise the producer's home shard
+    private LockFreeRingBuffer<T> shardFor(T item) {
+        if (keyFunction == null) {
+            return shards[home.get()];
+        }
+        // Spread the hash so keys that differ only in the high bits still use different shards
+        int hash = Objects.hashCode(keyFunction.apply(item));
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    // Takes one item from the home shard, or steals one from the next non-empty sibling
+    private T tryConsume() {
+        int start = home.get();
+        for (int i = 0; i < shards.length; i++) {
+            T item = shards[(start + i) % shards.length].tryConsume();
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    // Takes items without waiting, home shard first, until all shards are empty or the limit is reached
+    private int drainAvailable(Collection<? super T> destination, int maxItems) {
+        int start = home.get();
+        int removed = 0;
+        for (int i = 0; i < shards.length && removed < maxItems; i++) {
+            LockFreeRingBuffer<T> shard = shards[(start + i) % shards.length];
+            T item;
+            while (removed < maxItems && (item = shard.tryConsume()) != null) {
+                destination.add(item);
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
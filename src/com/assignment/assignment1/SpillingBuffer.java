@@ -0,0 +1,450 @@
+package com.assignment.assignment1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An effectively unbounded buffer that keeps a small in-memory ring and spills
+ * the overflow to memory-mapped segment files.
+ * <p>
+ * Producers never wait: once the in-memory part is full, items are serialized
+ * with the supplied {@link Serializer} and appended to the current segment as
+ * length-prefixed records ({@code int length, byte[length] payload}). The heap
+ * only ever holds {@code memoryCapacity} items; the spilled bytes live in the
+ * OS page cache and on disk.
+ * <p>
+ * FIFO order is preserved because, once spilling has started, every new item
+ * goes to disk until the disk part is fully drained. Consumers take the
+ * in-memory items first (they are all older), then read the segments in order.
+ * <p>
+ * A fully consumed segment is kept as a spare and reused, file and mapping, by the
+ * next spill, so a long burst cycles through a few mapped files instead of mapping a
+ * new one per segment. Once the disk part is empty, every segment file is deleted.
+ * Java cannot unmap a buffer explicitly: the mapping of a deleted segment is only
+ * released when it is garbage collected, and until then it keeps its address space
+ * (and, on Windows, its file, whose delete then fails).
+ * <p>
+ * {@code setDone} works as in the other buffers: consumers drain what is left
+ * (memory and disk) and then receive null / -1. Disk errors are rethrown as
+ * {@link UncheckedIOException}. Call {@link #close()} to delete the remaining
+ * segment files.
+ *
+ * @param <T> The type of data stored in the buffer.
+ */
+public class SpillingBuffer<T> implements SharedBuffer<T>, Closeable {
+
+    // Default size of one segment file
+    private static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    // Hot part of the buffer; holds the oldest items
+    private final ArrayDeque<T> memory;
+    private final int memoryCapacity;
+
+    // Spilled items, oldest segment first; new records go to the last one
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+    // A drained segment waiting to be reused by the next spill, or null
+    private Segment spare;
+    private final Path directory;
+    private final int segmentBytes;
+    private final Serializer<T> serializer;
+
+    // Number of records currently on disk
+    private long spilledCount = 0;
+
+    private boolean productionFinished = false;
+    private boolean closed = false;
+
+    // Producers never wait, so only consumers need a condition
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // Listener for produce/consume/wait events (BufferMetrics.NONE when not monitored)
+    private final BufferMetrics metrics;
+
+    /**
+     * Constructor to initialize the buffer with 64 MB segments.
+     *
+     * @param memoryCapacity The number of items kept on the heap before spilling.
+     * @param directory      The directory that receives the segment files.
+     * @param serializer     Converts items to and from the on-disk records.
+     */
+    public SpillingBuffer(int memoryCapacity, Path directory, Serializer<T> serializer) {
+        this(memoryCapacity, directory, serializer, DEFAULT_SEGMENT_BYTES, BufferMetrics.NONE);
+    }
+
+    /**
+     * Constructor to initialize a monitored buffer.
+     *
+     * @param memoryCapacity The number of items kept on the heap before spilling.
+     * @param directory      The directory that receives the segment files.
+     * @param serializer     Converts items to and from the on-disk records.
+     * @param segmentBytes   The size of one segment file (a larger record gets a segment of its own).
+     * @param metrics        The listener notified of buffer activity.
+     */
+    public SpillingBuffer(int memoryCapacity, Path directory, Serializer<T> serializer, int segmentBytes,
+                          BufferMetrics metrics) {
+        if (memoryCapacity <= 0) {
+            throw new IllegalArgumentException("Memory capacity must be positive: " + memoryCapacity);
+        }
+        if (segmentBytes < Integer.BYTES) {
+            throw new IllegalArgumentException("Segment too small: " + segmentBytes);
+        }
+        this.memory = new ArrayDeque<>(memoryCapacity);
+        this.memoryCapacity = memoryCapacity;
+        this.directory = directory;
+        this.serializer = serializer;
+        this.segmentBytes = segmentBytes;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return The number of items currently spilled to disk.
+     */
+    public long getSpilledCount() {
+        lock.lock();
+        try {
+            return spilledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item to the buffer. Never blocks: the item goes to disk if memory is full.
+     */
+    @Override
+    public void produce(T item) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            add(item);
+            metrics.onProduced(1, size());
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #produce}: the buffer is never full, so the timeout is not used.
+     *
+     * @return Always true.
+     */
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        produce(item);
+        return true;
+    }
+
+    /**
+     * Removes an item from the buffer.
+     * Blocks the calling thread if the buffer is empty.
+     */
+    @Override
+    public T consume() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty(Long.MAX_VALUE)) {
+                return null;
+            }
+            return take();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an item, waiting at most the timeout while the buffer is empty.
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty(nanos)) {
+                return null;
+            }
+            return take();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of items under a single acquisition of the lock.
+     */
+    @Override
+    public void produceAll(Collection<? extends T> items) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            for (T item : items) {
+                add(item);
+            }
+            metrics.onProduced(items.size(), size());
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #produceAll(Collection)}: the buffer is never full, so the timeout is not used.
+     *
+     * @return The size of the collection.
+     */
+    @Override
+    public int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException {
+        produceAll(items);
+        return items.size();
+    }
+
+    /**
+     * Removes up to maxItems items, memory first, then disk.
+     * Blocks only while the buffer is empty and production is still running.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException {
+        return drainTo(destination, maxItems, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes up to maxItems items, giving up once the timeout elapses while the buffer is empty.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty(nanos)) {
+                return productionFinished ? -1 : 0;
+            }
+            int removed = 0;
+            while (removed < maxItems && size() > 0) {
+                destination.add(takeQuietly());
+                removed++;
+            }
+            metrics.onConsumed(removed, size());
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signals that the producer has finished its job.
+     * Waiting consumers are woken so they can drain memory and disk and exit.
+     */
+    @Override
+    public void setDone(boolean done) {
+        lock.lock();
+        try {
+            this.productionFinished = done;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes every remaining segment file. Items still on disk are lost;
+     * the buffer cannot be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            IOException failure = null;
+            if (spare != null) {
+                segments.add(spare);
+                spare = null;
+            }
+            for (Segment segment : segments) {
+                try {
+                    segment.delete();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            segments.clear();
+            spilledCount = 0;
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stores an item in memory, or on disk once memory is full or spilling has started. Caller must hold the lock.
+    private void add(T item) {
+        if (item == null) {
+            // null is reserved as the "production finished" signal of consume()
+            throw new NullPointerException("Buffer does not accept null items");
+        }
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+        if (spilledCount == 0 && memory.size() < memoryCapacity) {
+            memory.add(item);
+        } else {
+            spill(serializer.serialize(item));
+        }
+    }
+
+    // Appends one record to the last segment, starting a new one if it does not fit. Caller must hold the lock.
+    private void spill(byte[] record) {
+        Segment segment = segments.peekLast();
+        try {
+            if (segment == null || !segment.fits(record.length)) {
+                if (spare != null && spare.fits(record.length)) {
+                    segment = spare; // Already mapped: no new file, no new mapping
+                    spare = null;
+                } else {
+                    Path file = Files.createTempFile(directory, "spill-", ".seg");
+                    segment = new Segment(file, Math.max(segmentBytes, Integer.BYTES + record.length));
+                }
+                segments.addLast(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create spill segment in " + directory, e);
+        }
+        segment.write(record);
+        spilledCount++;
+    }
+
+    // Removes the oldest item and reports it. Caller must hold the lock and checked size() > 0.
+    private T take() {
+        T item = takeQuietly();
+        metrics.onConsumed(1, size());
+        return item;
+    }
+
+    // Removes the oldest item: memory first (always older), then the oldest segment. Caller must hold the lock.
+    private T takeQuietly() {
+        if (!memory.isEmpty()) {
+            return memory.poll();
+        }
+        Segment segment = segments.peekFirst();
+        T item = serializer.deserialize(segment.read());
+        spilledCount--;
+        if (segment.isDrained() && (segments.size() > 1 || spilledCount == 0)) {
+            // Fully consumed and no longer written to: keep one standard-size segment for reuse
+            segments.pollFirst();
+            if (spilledCount > 0 && spare == null && segment.capacity() == segmentBytes) {
+                segment.reset();
+                spare = segment;
+            } else {
+                release(segment);
+            }
+            if (spilledCount == 0 && spare != null) {
+                release(spare); // The burst is over: give the disk space back
+                spare = null;
+            }
+        }
+        return item;
+    }
+
+    private static void release(Segment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete spill segment " + segment.file, e);
+        }
+    }
+
+    // Waits at most nanos while the buffer is empty, reporting the time spent. Caller must hold the lock.
+    // Returns false if the timeout elapsed or production finished while the buffer was empty.
+    private boolean awaitNotEmpty(long nanos) throws InterruptedException {
+        long waitStart = 0;
+        while (size() == 0) {
+            if (productionFinished || nanos <= 0) {
+                if (waitStart != 0) {
+                    metrics.onEmptyWait(System.nanoTime() - waitStart);
+                }
+                return false;
+            }
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            nanos = notEmpty.awaitNanos(nanos);
+        }
+        if (waitStart != 0) {
+            metrics.onEmptyWait(System.nanoTime() - waitStart);
+        }
+        return true;
+    }
+
+    // Number of items in memory and on disk, capped for the int-based metrics. Caller must hold the lock.
+    private int size() {
+        return (int) Math.min(memory.size() + spilledCount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * One memory-mapped spill file: records are appended at writePos and read at readPos.
+     */
+    private static final class Segment {
+        final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer map;
+        private int writePos = 0;
+        private int readPos = 0;
+
+        Segment(Path file, int size) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        boolean fits(int length) {
+            return map.capacity() - writePos >= Integer.BYTES + length;
+        }
+
+        int capacity() {
+            return map.capacity();
+        }
+
+        // Empties a drained segment so it can be written again from the start
+        void reset() {
+            writePos = 0;
+            readPos = 0;
+        }
+
+        void write(byte[] record) {
+            map.putInt(writePos, record.length);
+            map.put(writePos + Integer.BYTES, record);
+            writePos += Integer.BYTES + record.length;
+        }
+
+        byte[] read() {
+            byte[] record = new byte[map.getInt(readPos)];
+            map.get(readPos + Integer.BYTES, record);
+            readPos += Integer.BYTES + record.length;
+            return record;
+        }
+
+        boolean isDrained() {
+            return readPos == writePos;
+        }
+
+        // The mapping itself is only released by the GC (see the class doc); on POSIX the file can go at once
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.assignment.assignment1;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded buffer with separate put and take locks ("two-lock queue").
+ * <p>
+ * {@link CustomBlockingBuffer} funnels producers and consumers through one
+ * {@link ReentrantLock}, so a put and a take exclude each other even though
+ * they touch opposite ends of the queue. Here producers only
+ * contend with producers (on {@code putLock}) and consumers only with
+ * consumers (on {@code takeLock}), so a put and a take can run at the same time.
+ * Each side waits on its own condition ({@code notFull} / {@code notEmpty})
+ * and is woken with a targeted {@code signal()}:
+ * <ul>
+ * <li>A thread that leaves room for another thread of its own side passes the
+ *     signal on ("cascading"), so exactly one waiter wakes per free slot/item.</li>
+ * <li>The other side is only signalled on the empty -> non-empty or
+ *     full -> non-full transition, the only moments it can be waiting.</li>
+ * </ul>
+ * The two sides share the item count through an {@link AtomicInteger}, whose
+ * volatile read/write also publishes the array slots between the two locks.
+ * Lock ordering is always putLock before takeLock.
+ * <p>
+ * Activity is reported to an optional {@link BufferMetrics} listener;
+ * single-item events are reported after the lock has been released.
+ *
+ * @param <T> The type of data stored in the buffer.
+ */
+public class SplitLockBlockingBuffer<T> implements SharedBuffer<T> {
+
+    // Preallocated ring storage
+    private final Object[] items;
+
+    // Guarded by putLock / takeLock respectively
+    private int putIndex = 0;
+    private int takeIndex = 0;
+
+    // Number of items currently stored, shared by both sides
+    private final AtomicInteger count = new AtomicInteger();
+
+    // Producer side
+    private final ReentrantLock putLock = new ReentrantLock();
+    private final Condition notFull = putLock.newCondition();
+
+    // Consumer side
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private final Condition notEmpty = takeLock.newCondition();
+
+    // Flag to signal consumers to stop waiting when production is complete
+    private volatile boolean productionFinished = false;
+
+    // Listener for produce/consume/wait events (BufferMetrics.NONE when not monitored)
+    private final BufferMetrics metrics;
+
+    /**
+     * Constructor to initialize the buffer.
+     *
+     * @param capacity The fixed size of the buffer.
+     */
+    public SplitLockBlockingBuffer(int capacity) {
+        this(capacity, BufferMetrics.NONE);
+    }
+
+    /**
+     * Constructor to initialize a monitored buffer.
+     *
+     * @param capacity The fixed size of the buffer.
+     * @param metrics  The listener notified of buffer activity.
+     */
+    public SplitLockBlockingBuffer(int capacity, BufferMetrics metrics) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.items = new Object[capacity];
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds an item to the buffer, holding only the put lock.
+     * Blocks the calling thread if the buffer is full.
+     */
+    @Override
+    public void produce(T item) throws InterruptedException {
+        int before;
+        putLock.lockInterruptibly();
+        try {
+            awaitNotFull();
+            enqueue(item);
+            before = count.getAndIncrement();
+
+            // Still room left: pass the turn on to the next waiting producer
+            if (before + 1 < items.length) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (before == 0) {
+            signalNotEmpty();
+        }
+        metrics.onProduced(1, before + 1);
+    }
+
+    /**
+     * Removes an item from the buffer, holding only the take lock.
+     * Blocks the calling thread if the buffer is empty.
+     */
+    @Override
+    public T consume() throws InterruptedException {
+        T item;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty()) {
+                return null;
+            }
+            item = dequeue();
+            before = count.getAndDecrement();
+
+            // More items left: pass the turn on to the next waiting consumer
+            if (before > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == items.length) {
+            signalNotFull();
+        }
+        metrics.onConsumed(1, before - 1);
+        return item;
+    }
+
+    /**
+     * Adds an item, giving up once the timeout elapses while the buffer is full.
+     */
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        int before;
+        putLock.lockInterruptibly();
+        try {
+            long waitStart = 0;
+            while (count.get() == items.length) {
+                if (nanos <= 0) {
+                    recordFullWait(waitStart);
+                    return false;
+                }
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            recordFullWait(waitStart);
+            enqueue(item);
+            before = count.getAndIncrement();
+            if (before + 1 < items.length) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (before == 0) {
+            signalNotEmpty();
+        }
+        metrics.onProduced(1, before + 1);
+        return true;
+    }
+
+    /**
+     * Removes an item, giving up once the timeout elapses while the buffer is empty.
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        T item;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            long waitStart = 0;
+            while (count.get() == 0) {
+                if (productionFinished || nanos <= 0) {
+                    recordEmptyWait(waitStart);
+                    return null;
+                }
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            recordEmptyWait(waitStart);
+            item = dequeue();
+            before = count.getAndDecrement();
+            if (before > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == items.length) {
+            signalNotFull();
+        }
+        metrics.onConsumed(1, before - 1);
+        return item;
+    }
+
+    /**
+     * Adds a batch of items under a single acquisition of the put lock.
+     */
+    @Override
+    public void produceAll(Collection<? extends T> items) throws InterruptedException {
+        Iterator<? extends T> it = items.iterator();
+        putLock.lockInterruptibly();
+        try {
+            while (it.hasNext()) {
+                awaitNotFull();
+                publish(fill(it));
+            }
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of items, giving up once the timeout elapses while the buffer is full.
+     */
+    @Override
+    public int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        Iterator<? extends T> it = items.iterator();
+        int produced = 0;
+        putLock.lockInterruptibly();
+        try {
+            while (it.hasNext()) {
+                long waitStart = 0;
+                while (count.get() == this.items.length) {
+                    if (nanos <= 0) {
+                        recordFullWait(waitStart);
+                        return produced;
+                    }
+                    if (waitStart == 0) {
+                        waitStart = System.nanoTime();
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+                recordFullWait(waitStart);
+                int added = fill(it);
+                publish(added);
+                produced += added;
+            }
+            return produced;
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a batch of items under a single acquisition of the take lock.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems) throws InterruptedException {
+        checkMaxItems(maxItems);
+        int removed;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            if (!awaitNotEmpty()) {
+                return -1;
+            }
+            removed = drain(destination, maxItems);
+            before = count.getAndAdd(-removed);
+            if (before > removed) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == items.length) {
+            signalNotFull();
+        }
+        metrics.onConsumed(removed, before - removed);
+        return removed;
+    }
+
+    /**
+     * Removes a batch of items, giving up once the timeout elapses while the buffer is empty.
+     */
+    @Override
+    public int drainTo(Collection<? super T> destination, int maxItems, long timeout, TimeUnit unit) throws InterruptedException {
+        checkMaxItems(maxItems);
+        long nanos = unit.toNanos(timeout);
+        int removed;
+        int before;
+        takeLock.lockInterruptibly();
+        try {
+            long waitStart = 0;
+            while (count.get() == 0) {
+                if (productionFinished || nanos <= 0) {
+                    recordEmptyWait(waitStart);
+                    return productionFinished ? -1 : 0;
+                }
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            recordEmptyWait(waitStart);
+            removed = drain(destination, maxItems);
+            before = count.getAndAdd(-removed);
+            if (before > removed) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (before == items.length) {
+            signalNotFull();
+        }
+        metrics.onConsumed(removed, before - removed);
+        return removed;
+    }
+
+    /**
+     * Signals that the producer has finished its job.
+     * All consumers waiting on notEmpty are woken so they can drain and exit.
+     */
+    @Override
+    public void setDone(boolean done) {
+        this.productionFinished = done;
+        takeLock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    // Waits while the buffer is full, reporting the time spent. Caller must hold putLock.
+    private void awaitNotFull() throws InterruptedException {
+        if (count.get() == items.length) {
+            long waitStart = System.nanoTime();
+            do {
+                notFull.await();
+            } while (count.get() == items.length);
+            metrics.onFullWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    // Waits while the buffer is empty, reporting the time spent. Caller must hold takeLock.
+    // Returns false if production finished while the buffer was empty.
+    private boolean awaitNotEmpty() throws InterruptedException {
+        long waitStart = 0;
+        while (count.get() == 0) {
+            if (productionFinished) {
+                recordEmptyWait(waitStart);
+                return false;
+            }
+            if (waitStart == 0) {
+                waitStart = System.nanoTime();
+            }
+            notEmpty.await();
+        }
+        recordEmptyWait(waitStart);
+        return true;
+    }
+
+    private void recordFullWait(long waitStart) {
+        if (waitStart != 0) {
+            metrics.onFullWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    private void recordEmptyWait(long waitStart) {
+        if (waitStart != 0) {
+            metrics.onEmptyWait(System.nanoTime() - waitStart);
+        }
+    }
+
+    // Stores an item at the tail. Caller must hold putLock.
+    private void enqueue(T item) {
+        items[putIndex] = item;
+        if (++putIndex == items.length) {
+            putIndex = 0;
+        }
+    }
+
+    // Removes the item at the head. Caller must hold takeLock.
+    @SuppressWarnings("unchecked")
+    private T dequeue() {
+        T item = (T) items[takeIndex];
+        items[takeIndex] = null; // Let GC reclaim the item
+        if (++takeIndex == items.length) {
+            takeIndex = 0;
+        }
+        return item;
+    }
+
+    // Stores items until the iterator or the free space runs out. Caller must hold putLock.
+    private int fill(Iterator<? extends T> it) {
+        int free = items.length - count.get();
+        int added = 0;
+        while (added < free && it.hasNext()) {
+            enqueue(it.next());
+            added++;
+        }
+        return added;
+    }
+
+    // Makes stored items visible to consumers and wakes them. Caller must hold putLock.
+    private void publish(int added) {
+        int before = count.getAndAdd(added);
+        metrics.onProduced(added, before + added);
+        if (before + added < items.length) {
+            notFull.signal();
+        }
+        if (before == 0) {
+            // Nested acquisition follows the putLock -> takeLock order
+            signalNotEmpty();
+        }
+    }
+
+    // Moves up to maxItems into the destination. Caller must hold takeLock.
+    private int drain(Collection<? super T> destination, int maxItems) {
+        int n = Math.min(maxItems, count.get());
+        for (int i = 0; i < n; i++) {
+            destination.add(dequeue());
+        }
+        return n;
+    }
+
+    // Wakes one waiting consumer. Called after the empty -> non-empty transition.
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    // Wakes one waiting producer. Called after the full -> non-full transition.
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    private static void checkMaxItems(int maxItems) {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.assignment.assignment1;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the kind of thread that runs the workers ({@link AbstractWorker} subclasses).
+ * <p>
+ * Producers spend most of their time blocked (the {@code Thread.sleep} in {@link Producer}
+ * stands in for a DB/network read), so each one holds a thread without using a CPU.
+ * <ul>
+ * <li>{@link #PLATFORM}: a fixed pool with one OS thread per worker. Fine for a handful
+ *     of workers, but thousands of them cost thousands of OS threads and their stacks.</li>
+ * <li>{@link #VIRTUAL}: one virtual thread per task (Java 21). A blocked virtual thread
+ *     releases its carrier, so thousands of producers share a few OS threads. The buffer
+ *     must block with {@code java.util.concurrent} locks rather than {@code synchronized},
+ *     otherwise the carrier stays pinned while the worker waits.</li>
+ * </ul>
+ */
+public enum WorkerThreadMode {
+
+    PLATFORM {
+        @Override
+        public ExecutorService newExecutor(String namePrefix, int workers) {
+            AtomicInteger threadId = new AtomicInteger();
+            return Executors.newFixedThreadPool(workers, r -> new Thread(r, namePrefix + threadId.incrementAndGet()));
+        }
+    },
+
+    VIRTUAL {
+        @Override
+        public ExecutorService newExecutor(String namePrefix, int workers) {
+            // No pool: every submitted worker gets its own virtual thread
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+        }
+    };
+
+    /**
+     * Creates an executor that can run all workers at the same time
+     * (Producers and Consumers block on the buffer, so none of them may queue behind another).
+     *
+     * @param namePrefix Thread name prefix; threads are numbered from 1 (e.g. "WORKER-1").
+     * @param workers    The number of workers that will run concurrently.
+     * @return A new executor; the caller owns its lifecycle.
+     */
+    public abstract ExecutorService newExecutor(String namePrefix, int workers);
+}
@@ -0,0 +1,71 @@
+package com.assignment.assignment1;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The producer side of a {@link SharedBuffer}: adding items and signalling completion.
+ * <p>
+ * A {@link Producer} only holds this side, so it cannot take items by mistake.
+ *
+ * @param <T> The type of data elements stored in the buffer.
+ */
+public interface WritableBuffer<T> {
+
+    /**
+     * Adds an item to the buffer.
+     * <p>
+     * If the buffer is full, the calling thread must wait (block)
+     * until space becomes available.
+     *
+     * @param item The item to produce/add.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    void produce(T item) throws InterruptedException;
+
+    /**
+     * Adds an item to the buffer, waiting at most the given time for free space.
+     * <p>
+     * Unlike {@link #produce}, a slow consumer can never stall the caller for
+     * longer than the timeout; a timeout of 0 makes this a non-blocking attempt.
+     *
+     * @param item    The item to produce/add.
+     * @param timeout How long to wait before giving up.
+     * @param unit    The unit of the timeout argument.
+     * @return True if the item was added, false if the buffer stayed full.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Adds every item of the collection to the buffer, in iteration order.
+     * <p>
+     * Items are transferred in as few lock acquisitions as the free space allows.
+     * If the buffer fills up, the calling thread waits (blocks) until space
+     * becomes available and then continues with the remaining items.
+     *
+     * @param items The items to produce/add.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    void produceAll(Collection<? extends T> items) throws InterruptedException;
+
+    /**
+     * Adds the items of the collection to the buffer, in iteration order,
+     * waiting at most the given time for free space.
+     *
+     * @param items   The items to produce/add.
+     * @param timeout How long to wait before giving up.
+     * @param unit    The unit of the timeout argument.
+     * @return The number of leading items that were added before the timeout elapsed.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    int produceAll(Collection<? extends T> items, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Sets a flag indicating that the Producer has finished its job.
+     * This is used to signal Consumers to stop waiting and exit safely.
+     *
+     * @param done True if production is complete.
+     */
+    void setDone(boolean done);
+}
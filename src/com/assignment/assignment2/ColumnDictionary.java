@@ -0,0 +1,57 @@
+package com.assignment.assignment2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the distinct values of a text column to dense int codes (0, 1, 2, ...).
+ * <p>
+ * Columns such as category or region repeat a handful of values millions of times.
+ * Storing one int code per row instead of a String reference lets the column live
+ * in a primitive {@code int[]}, and every distinct String is kept exactly once.
+ * Not thread-safe while values are being added.
+ */
+public class ColumnDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * @param value The value to encode.
+     * @return The code of the value, assigning the next free code if it is new.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * @param value The value to look up.
+     * @return The code of the value, or -1 if it never occurred.
+     */
+    public int codeOf(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    /**
+     * @param code A code returned by {@link #encode}.
+     * @return The value behind the code.
+     */
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * @return The number of distinct values (codes are 0 to size() - 1).
+     */
+    public int size() {
+        return values.size();
+    }
+}
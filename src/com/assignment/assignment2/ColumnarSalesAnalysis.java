@@ -0,0 +1,117 @@
+package com.assignment.assignment2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link SalesAnalysisService} operations, implemented over {@link SalesColumns}.
+ * <p>
+ * Aggregations are plain loops over one primitive column, so the JIT can keep
+ * the running sum in a register and the CPU can prefetch the array sequentially.
+ * Text comparisons are done once per distinct value (on the dictionary), and the
+ * rows are then matched by int code. {@link SalesRecord} objects are only created
+ * for the rows that are returned.
+ */
+public class ColumnarSalesAnalysis {
+
+    private final SalesColumns columns;
+
+    public ColumnarSalesAnalysis(SalesColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Filters the dataset to return only sales from a specific region (case-insensitive).
+     *
+     * @param region The region name to filter by (e.g., "North").
+     * @return A list of matching SalesRecords, in row order.
+     */
+    public List<SalesRecord> filterByRegion(String region) {
+        // Resolve the name against the few distinct regions, not against every row
+        ColumnDictionary regions = columns.regions();
+        boolean[] matches = new boolean[regions.size()];
+        for (int code = 0; code < matches.length; code++) {
+            matches[code] = region.equalsIgnoreCase(regions.decode(code)); // Null regions never match
+        }
+
+        int[] regionCodes = columns.regionCodes();
+        List<SalesRecord> result = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            if (matches[regionCodes[row]]) {
+                result.add(columns.get(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the total revenue across all sales.
+     *
+     * @return The total sum of amounts.
+     */
+    public double calculateTotalRevenue() {
+        double[] amounts = columns.amounts();
+        int size = columns.size();
+        double total = 0.0;
+        for (int row = 0; row < size; row++) {
+            total += amounts[row];
+        }
+        return total;
+    }
+
+    /**
+     * Groups sales records by their Category.
+     *
+     * @return A Map where Key is the category name and Value is the list of sales, in row order.
+     */
+    public Map<String, List<SalesRecord>> getSalesByCategory() {
+        ColumnDictionary categories = columns.categories();
+        List<List<SalesRecord>> groups = new ArrayList<>(categories.size());
+        for (int code = 0; code < categories.size(); code++) {
+            groups.add(new ArrayList<>());
+        }
+        int[] categoryCodes = columns.categoryCodes();
+        for (int row = 0; row < columns.size(); row++) {
+            groups.get(categoryCodes[row]).add(columns.get(row));
+        }
+
+        Map<String, List<SalesRecord>> result = new HashMap<>();
+        for (int code = 0; code < groups.size(); code++) {
+            result.put(categories.decode(code), groups.get(code));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the single sale with the highest monetary amount (the first one on ties).
+     *
+     * @return An Optional containing the highest sale, or empty if no data exists.
+     */
+    public Optional<SalesRecord> findHighestValueSale() {
+        int size = columns.size();
+        if (size == 0) {
+            return Optional.empty();
+        }
+        double[] amounts = columns.amounts();
+        int best = 0;
+        for (int row = 1; row < size; row++) {
+            if (amounts[row] > amounts[best]) {
+                best = row;
+            }
+        }
+        return Optional.of(columns.get(best));
+    }
+
+    /**
+     * Calculates the average transaction value.
+     *
+     * @return The average amount, or 0.0 if no data exists.
+     */
+    public double calculateAverageSales() {
+        int size = columns.size();
+        return size == 0 ? 0.0 : calculateTotalRevenue() / size;
+    }
+}
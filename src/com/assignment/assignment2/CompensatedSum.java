@@ -0,0 +1,35 @@
+package com.assignment.assignment2;
+
+/**
+ * A running sum of doubles with Neumaier's (improved Kahan) compensation.
+ * <p>
+ * A plain {@code +=} loses the low-order bits of every small amount added to a
+ * large total, and the loss depends on the order of the additions, so a parallel
+ * sum (split, summed, merged) can differ from the sequential one. The compensation
+ * term collects those lost bits, which keeps both results equal to the cent on
+ * realistic sales data. Not thread-safe.
+ */
+final class CompensatedSum {
+
+    private double sum = 0.0;
+    private double compensation = 0.0;
+
+    void add(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value; // Low-order bits of value were lost
+        } else {
+            compensation += (value - t) + sum; // Low-order bits of sum were lost
+        }
+        sum = t;
+    }
+
+    void add(CompensatedSum other) {
+        add(other.sum);
+        compensation += other.compensation;
+    }
+
+    double value() {
+        return sum + compensation;
+    }
+}
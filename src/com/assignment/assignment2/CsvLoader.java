@@ -1,56 +1,307 @@
 package com.assignment.assignment2;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.time.LocalDate;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 
 /**
  * Utility class to handle File I/O operations.
  * Responsible for parsing raw CSV data into Java Objects.
+ * <p>
+ * The actual parsing is done by {@link SalesCsvParser}, which works on the raw
+ * bytes of the memory-mapped file instead of splitting line Strings.
+ * The parallel overloads split the file into newline-aligned byte ranges and
+ * parse them on a fork-join pool, one core per range.
+ * A parsed dataset can be saved as a binary {@link SalesSnapshot}, which later runs
+ * load instead of the CSV while the CSV is unchanged.
  */
 public class CsvLoader {
 
+    // Ranges smaller than this are not worth a task of their own
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+
+    // Ranges per worker, so a slow range does not leave the other workers idle
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    // Default snapshot location: next to the CSV
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
     /**
      * Reads a CSV file from the specified path and converts it into a List of SalesRecord objects.
+     * Malformed rows are reported on System.err (with their line number) and skipped.
      *
      * @param filePath The relative or absolute path to the .csv file.
      * @return A list of populated SalesRecord objects.
      */
     public static List<SalesRecord> loadSales(String filePath) {
-        List<SalesRecord> sales = new ArrayList<>();
+        return loadSales(filePath, SalesCsvParser.PRINT_TO_STDERR);
+    }
 
-        // Use try-with-resources to ensure the file reader closes automatically (IO Safety)
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean isHeader = true;
+    /**
+     * Same as {@link #loadSales(String)}, but reports malformed rows to the given listener.
+     *
+     * @param filePath The relative or absolute path to the .csv file.
+     * @param errors   Receives every malformed row.
+     * @return A list of populated SalesRecord objects.
+     */
+    public static List<SalesRecord> loadSales(String filePath, SalesCsvParser.ErrorListener errors) {
+        List<SalesRecord> sales = new ArrayList<>();
+        try {
+            new SalesCsvParser(errors).parse(Path.of(filePath), sales::add);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return sales;
+    }
 
-            while ((line = br.readLine()) != null) {
-                // Skip the first row (Header)
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
+    /**
+     * Loads the records from the binary snapshot next to the CSV ({@code <file>.snapshot}) if it
+     * is up to date; otherwise parses the CSV and writes the snapshot for the next run.
+     * A stale, damaged or unwritable snapshot never fails the load: the CSV is used instead.
+     * Malformed CSV rows are only reported when the CSV is parsed, not on snapshot loads.
+     *
+     * @param filePath The relative or absolute path to the .csv file.
+     * @return A list of populated SalesRecord objects, in file order.
+     */
+    public static List<SalesRecord> loadSalesWithSnapshot(String filePath) {
+        return loadSalesWithSnapshot(filePath, filePath + SNAPSHOT_SUFFIX);
+    }
 
-                String[] v = line.split(",");
+    /**
+     * Same as {@link #loadSalesWithSnapshot(String)}, with an explicit snapshot location.
+     *
+     * @param filePath     The relative or absolute path to the .csv file.
+     * @param snapshotPath Where the snapshot is read from and written to.
+     * @return A list of populated SalesRecord objects, in file order.
+     */
+    public static List<SalesRecord> loadSalesWithSnapshot(String filePath, String snapshotPath) {
+        Path source = Path.of(filePath);
+        Path snapshot = Path.of(snapshotPath);
+        try {
+            List<SalesRecord> sales = SalesSnapshot.readIfFresh(snapshot, source);
+            if (sales != null) {
+                return sales;
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring snapshot " + snapshot + ": " + e.getMessage());
+        }
 
-                // Parse strings into strongly-typed data (int, double, LocalDate)
-                SalesRecord record = new SalesRecord(
-                        Integer.parseInt(v[0].trim()),          // ID
-                        LocalDate.parse(v[1].trim()),           // Date (YYYY-MM-DD)
-                        v[2].trim(),                            // Category
-                        v[3].trim(),                            // Product
-                        v[4].trim(),                            // Region
-                        Double.parseDouble(v[5].trim())         // Amount
-                );
-                sales.add(record);
+        List<SalesRecord> sales = loadSales(filePath);
+        if (Files.isRegularFile(source)) {
+            try {
+                SalesSnapshot.write(sales, snapshot, source);
+            } catch (IOException e) {
+                System.err.println("Could not write snapshot " + snapshot + ": " + e.getMessage());
             }
+        }
+        return sales;
+    }
+
+    /**
+     * Saves a parsed dataset as a binary snapshot of the given CSV file, stamped with the
+     * file's current size and modification time.
+     *
+     * @param sales        The records parsed from the file.
+     * @param filePath     The .csv file the records came from.
+     * @param snapshotPath Where to write the snapshot; an existing one is replaced atomically.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public static void writeSnapshot(List<SalesRecord> sales, String filePath, String snapshotPath) throws IOException {
+        SalesSnapshot.write(sales, Path.of(snapshotPath), Path.of(filePath));
+    }
+
+    /**
+     * Streams the records of a CSV file to a sink, one at a time, without collecting them.
+     * Memory use does not grow with the file size, so this works for files larger than the heap
+     * (e.g. with a {@link SalesAggregator} as the sink).
+     *
+     * @param filePath The relative or absolute path to the .csv file.
+     * @param sink     Receives every valid record, in file order.
+     * @return The number of records passed to the sink.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long streamSales(String filePath, Consumer<? super SalesRecord> sink) throws IOException {
+        return new SalesCsvParser().parse(Path.of(filePath), sink);
+    }
+
+    /**
+     * Parallel version of {@link #loadSales(String)}: the file is parsed in newline-aligned
+     * ranges on a fork-join pool, and the results are concatenated in file order.
+     * Files smaller than 1 MB are parsed as a single range.
+     *
+     * @param filePath    The relative or absolute path to the .csv file.
+     * @param parallelism The number of worker threads (e.g. the number of cores).
+     * @return A list of populated SalesRecord objects, in file order.
+     */
+    public static List<SalesRecord> loadSales(String filePath, int parallelism) {
+        return loadSales(filePath, parallelism, SalesCsvParser.PRINT_TO_STDERR);
+    }
+
+    /**
+     * Same as {@link #loadSales(String, int)}, but reports malformed rows to the given listener.
+     * Rows are reported from the calling thread, in file order, after parsing has finished.
+     *
+     * @param filePath    The relative or absolute path to the .csv file.
+     * @param parallelism The number of worker threads (e.g. the number of cores).
+     * @param errors      Receives every malformed row.
+     * @return A list of populated SalesRecord objects, in file order.
+     */
+    public static List<SalesRecord> loadSales(String filePath, int parallelism, SalesCsvParser.ErrorListener errors) {
+        try {
+            return loadParallel(Path.of(filePath), parallelism, errors, MIN_CHUNK_BYTES);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    // Visible for tests: minChunkBytes lets small files be split into several ranges
+    static List<SalesRecord> loadParallel(Path file, int parallelism, SalesCsvParser.ErrorListener errors,
+                                          long minChunkBytes) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunks = Math.max(1, Math.min((long) parallelism * CHUNKS_PER_WORKER, size / minChunkBytes));
+            long[] bounds = splitAtLineBreaks(channel, size, (int) chunks);
+
+            ChunkResult[] results = new ChunkResult[bounds.length - 1];
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new ParseChunks(channel, bounds, results, 0, results.length));
+            } finally {
+                pool.shutdown();
+            }
+
+            // Concatenate in file order; line numbers become absolute through a running prefix sum
+            int total = 0;
+            for (ChunkResult result : results) {
+                if (result.failure != null) {
+                    throw result.failure;
+                }
+                total += result.records.size();
+            }
+            List<SalesRecord> sales = new ArrayList<>(total);
+            long firstLine = 1;
+            for (ChunkResult result : results) {
+                sales.addAll(result.records);
+                for (MalformedRow row : result.malformed) {
+                    errors.onMalformedRow(firstLine - 1 + row.lineNumber, row.line, row.reason);
+                }
+                firstLine += result.lines;
+            }
+            return sales;
+        }
+    }
+
+    // Splits [0, size) into about `chunks` ranges, moving every inner boundary to just after a line break
+    private static long[] splitAtLineBreaks(FileChannel channel, long size, int chunks) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8 << 10);
+        for (int c = 1; c < chunks; c++) {
+            long target = Math.max(size * c / chunks, bounds.get(bounds.size() - 1));
+            long boundary = nextLineStart(channel, target, size, probe);
+            if (boundary >= size) {
+                break;
+            }
+            if (boundary > bounds.get(bounds.size() - 1)) {
+                bounds.add(boundary);
+            }
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Offset of the first byte after the first '\n' at or after `from`, or size if there is none
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the ranges [lo, hi) by splitting them in halves until one range is left.
+     */
+    @SuppressWarnings("serial") // Serializable only because ForkJoinTask is; never serialized
+    private static final class ParseChunks extends RecursiveAction {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final ChunkResult[] results;
+        private final int lo;
+        private final int hi;
+
+        ParseChunks(FileChannel channel, long[] bounds, ChunkResult[] results, int lo, int hi) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.results = results;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ParseChunks(channel, bounds, results, lo, mid),
+                        new ParseChunks(channel, bounds, results, mid, hi));
+                return;
+            }
+            ChunkResult result = new ChunkResult();
+            // Line numbers are relative to the range here and fixed up after the join
+            SalesCsvParser parser = new SalesCsvParser(
+                    (lineNumber, line, reason) -> result.malformed.add(new MalformedRow(lineNumber, line, reason)));
+            try {
+                parser.parseRange(channel, bounds[lo], bounds[lo + 1], 1, result.records::add);
+                result.lines = parser.lineCount();
+            } catch (IOException e) {
+                result.failure = e;
+            }
+            results[lo] = result;
+        }
+    }
+
+    // Output of one range
+    private static final class ChunkResult {
+        final List<SalesRecord> records = new ArrayList<>();
+        final List<MalformedRow> malformed = new ArrayList<>();
+        long lines;
+        IOException failure;
+    }
+
+    // A malformed row, held back until its absolute line number is known
+    private static final class MalformedRow {
+        final long lineNumber;
+        final String line;
+        final String reason;
+
+        MalformedRow(long lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
         }
-        return sales;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.assignment.assignment2;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The granularity of a date rollup. A bucket is identified by its first day.
+ */
+public enum DateBucket {
+
+    /** One bucket per calendar day. */
+    DAY {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+
+        @Override
+        long ordinal(LocalDate date) {
+            return date.toEpochDay();
+        }
+
+        @Override
+        LocalDate fromOrdinal(long ordinal) {
+            return LocalDate.ofEpochDay(ordinal);
+        }
+    },
+
+    /** ISO weeks, Monday to Sunday. */
+    WEEK {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+
+        @Override
+        long ordinal(LocalDate date) {
+            return Math.floorDiv(date.toEpochDay() + 3, 7); // Epoch day 0 was a Thursday
+        }
+
+        @Override
+        LocalDate fromOrdinal(long ordinal) {
+            return LocalDate.ofEpochDay(ordinal * 7 - 3);
+        }
+    },
+
+    /** Calendar months. */
+    MONTH {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+
+        @Override
+        long ordinal(LocalDate date) {
+            return date.getYear() * 12L + date.getMonthValue() - 1;
+        }
+
+        @Override
+        LocalDate fromOrdinal(long ordinal) {
+            return LocalDate.of((int) Math.floorDiv(ordinal, 12), Math.floorMod(ordinal, 12) + 1, 1);
+        }
+    };
+
+    /**
+     * @param date Any date.
+     * @return The first day of the bucket containing the date.
+     */
+    public abstract LocalDate start(LocalDate date);
+
+    /**
+     * @param start The first day of a bucket.
+     * @return The first day of the following bucket.
+     */
+    public abstract LocalDate next(LocalDate start);
+
+    // Consecutive numbers for consecutive buckets, used to pack a bucket into a group key
+    abstract long ordinal(LocalDate date);
+
+    // The first day of the bucket with the given ordinal
+    abstract LocalDate fromOrdinal(long ordinal);
+}
@@ -0,0 +1,75 @@
+package com.assignment.assignment2;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * How {@link SalesAnalysisService} runs its stream pipelines.
+ * <ul>
+ * <li>{@link #SEQUENTIAL}: one thread, the caller's.</li>
+ * <li>{@link #PARALLEL}: parallel streams on the common fork-join pool.</li>
+ * <li>{@link #forkJoin(int)}: parallel streams on a dedicated pool, so a large analysis
+ *     neither competes with nor is limited by other users of the common pool.</li>
+ * </ul>
+ */
+public final class ExecutionMode {
+
+    public static final ExecutionMode SEQUENTIAL = new ExecutionMode(false, null);
+    public static final ExecutionMode PARALLEL = new ExecutionMode(true, null);
+
+    private final boolean parallel;
+    private final ForkJoinPool pool;
+
+    private ExecutionMode(boolean parallel, ForkJoinPool pool) {
+        this.parallel = parallel;
+        this.pool = pool;
+    }
+
+    /**
+     * Parallel streams on a new pool. Its workers are daemon threads that exit when
+     * idle, so the mode does not need to be closed.
+     *
+     * @param parallelism The number of worker threads.
+     * @return The mode.
+     */
+    public static ExecutionMode forkJoin(int parallelism) {
+        return new ExecutionMode(true, new ForkJoinPool(parallelism));
+    }
+
+    /**
+     * @return True if pipelines run on more than one thread.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * @param source The data to stream.
+     * @return A sequential or parallel stream over the source, depending on the mode.
+     */
+    <T> Stream<T> stream(Collection<T> source) {
+        return parallel ? source.parallelStream() : source.stream();
+    }
+
+    /**
+     * Runs a pipeline built with {@link #stream}. Parallel streams use the fork-join
+     * pool of the thread that runs their terminal operation, so in forkJoin mode the
+     * pipeline is submitted to the dedicated pool.
+     *
+     * @param pipeline The pipeline, including its terminal operation.
+     * @return The pipeline's result.
+     */
+    <R> R run(Supplier<R> pipeline) {
+        return pool == null ? pipeline.get() : pool.submit(pipeline::get).join();
+    }
+
+    @Override
+    public String toString() {
+        if (!parallel) {
+            return "SEQUENTIAL";
+        }
+        return pool == null ? "PARALLEL" : "FORK_JOIN(" + pool.getParallelism() + ")";
+    }
+}
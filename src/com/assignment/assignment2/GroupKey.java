@@ -0,0 +1,73 @@
+package com.assignment.assignment2;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The identity of one group in a group-by result: a value per grouped dimension,
+ * and the first day of the date bucket if the grouping is by date.
+ * In a {@link SalesCube}, null stands for "all values" of a rolled-up dimension or date.
+ */
+public final class GroupKey {
+
+    private final List<SalesDimension> dimensions;
+    private final List<String> values;
+    private final LocalDate period;
+
+    GroupKey(SalesDimension[] dimensions, String[] values, LocalDate period) {
+        this.dimensions = Collections.unmodifiableList(Arrays.asList(dimensions));
+        this.values = Collections.unmodifiableList(Arrays.asList(values));
+        this.period = period;
+    }
+
+    /**
+     * @return The values of the grouped dimensions, in the order they were requested.
+     */
+    public List<String> getValues() {
+        return values;
+    }
+
+    /**
+     * @param dimension A grouped dimension.
+     * @return The group's value for it.
+     */
+    public String get(SalesDimension dimension) {
+        int i = dimensions.indexOf(dimension);
+        if (i < 0) {
+            throw new IllegalArgumentException("Not grouped by " + dimension);
+        }
+        return values.get(i);
+    }
+
+    /**
+     * @return The first day of the group's date bucket, or null if not grouped by date.
+     */
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GroupKey)) {
+            return false;
+        }
+        GroupKey other = (GroupKey) o;
+        return dimensions.equals(other.dimensions) && values.equals(other.values) && Objects.equals(period, other.period);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dimensions, values, period);
+    }
+
+    @Override
+    public String toString() {
+        return period == null ? values.toString() : values + "@" + period;
+    }
+}
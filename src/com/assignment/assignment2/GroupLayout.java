@@ -0,0 +1,156 @@
+package com.assignment.assignment2;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Packs the group of a sale into one long, as a mixed-radix number with one digit per axis.
+ * <p>
+ * The axes are the grouped dimensions (digit = code in the layout's own dictionary of
+ * the dimension) followed, optionally, by the date bucket (digit = bucket ordinal minus
+ * the first bucket in the data). Every axis has one extra digit value, {@code ALL},
+ * used by cube rollups. The dictionaries and digit ranges are fixed when the layout is
+ * created, from the distinct values and the date span of the data, so a layout can only
+ * pack the sales it was created from.
+ */
+final class GroupLayout {
+
+    private final SalesDimension[] dimensions;
+    private final ColumnDictionary[] dictionaries; // Read-only once the layout is built
+    private final DateBucket bucket;
+    private final long firstBucket;
+    private final long[] radix;
+    private final long[] multiplier;
+
+    private GroupLayout(SalesDimension[] dimensions, ColumnDictionary[] dictionaries, DateBucket bucket,
+                        long firstBucket, long buckets) {
+        this.dimensions = dimensions.clone();
+        this.dictionaries = dictionaries;
+        this.bucket = bucket;
+        this.firstBucket = firstBucket;
+        int axes = dimensions.length + (bucket == null ? 0 : 1);
+        radix = new long[axes];
+        multiplier = new long[axes];
+        long next = 1;
+        for (int axis = axes - 1; axis >= 0; axis--) {
+            long values = axis < dimensions.length ? dictionaries[axis].size() : buckets;
+            radix[axis] = values + 1; // The last digit value means ALL
+            multiplier[axis] = next;
+            try {
+                next = Math.multiplyExact(next, radix[axis]);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Too many possible groups to pack into a long key", e);
+            }
+        }
+    }
+
+    /**
+     * @param sales      The sales that will be grouped.
+     * @param bucket     The date granularity, or null to not group by date.
+     * @param dimensions The grouped dimensions, in order.
+     * @throws IllegalArgumentException If a sale has no value in a grouped dimension.
+     */
+    static GroupLayout of(Collection<SalesRecord> sales, DateBucket bucket, SalesDimension[] dimensions) {
+        ColumnDictionary[] dictionaries = new ColumnDictionary[dimensions.length];
+        for (int axis = 0; axis < dimensions.length; axis++) {
+            dictionaries[axis] = new ColumnDictionary();
+        }
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (SalesRecord sale : sales) {
+            for (int axis = 0; axis < dimensions.length; axis++) {
+                dictionaries[axis].encode(dimensions[axis].groupValue(sale));
+            }
+            if (bucket != null) {
+                long ordinal = bucket.ordinal(sale.getDate());
+                first = Math.min(first, ordinal);
+                last = Math.max(last, ordinal);
+            }
+        }
+        if (bucket == null || sales.isEmpty()) {
+            return new GroupLayout(dimensions, dictionaries, bucket, 0, 0);
+        }
+        return new GroupLayout(dimensions, dictionaries, bucket, first, last - first + 1);
+    }
+
+    int axes() {
+        return radix.length;
+    }
+
+    int dimensionCount() {
+        return dimensions.length;
+    }
+
+    long key(SalesRecord sale) {
+        long key = 0;
+        for (int axis = 0; axis < dimensions.length; axis++) {
+            key += dictionaries[axis].codeOf(dimensions[axis].of(sale)) * multiplier[axis];
+        }
+        if (bucket != null) {
+            key += (bucket.ordinal(sale.getDate()) - firstBucket) * multiplier[dimensions.length];
+        }
+        return key;
+    }
+
+    /**
+     * @param key      A packed key.
+     * @param keepMask Bit i set: keep axis i; clear: replace it with ALL.
+     * @return The key of the rolled-up group.
+     */
+    long rollUp(long key, int keepMask) {
+        for (int axis = 0; axis < radix.length; axis++) {
+            if ((keepMask & (1 << axis)) == 0) {
+                key += (radix[axis] - 1 - digit(key, axis)) * multiplier[axis];
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Packs the key of a group given by its values; null means ALL.
+     *
+     * @return The key, or -1 if a value or period is not in the layout's range.
+     */
+    long encode(String[] values, LocalDate period) {
+        if (values.length != dimensions.length) {
+            throw new IllegalArgumentException("Expected " + dimensions.length + " values, got " + values.length);
+        }
+        long key = 0;
+        for (int axis = 0; axis < dimensions.length; axis++) {
+            long digit = values[axis] == null ? radix[axis] - 1 : dictionaries[axis].codeOf(values[axis]);
+            if (digit < 0) {
+                return -1; // Not a value of the data
+            }
+            key += digit * multiplier[axis];
+        }
+        if (bucket != null) {
+            int axis = dimensions.length;
+            long digit = period == null ? radix[axis] - 1 : bucket.ordinal(period) - firstBucket;
+            if (digit < 0 || (period != null && digit >= radix[axis] - 1)) {
+                return -1; // Outside the date span of the data
+            }
+            key += digit * multiplier[axis];
+        } else if (period != null) {
+            throw new IllegalArgumentException("Not grouped by date");
+        }
+        return key;
+    }
+
+    GroupKey decode(long key) {
+        String[] values = new String[dimensions.length];
+        for (int axis = 0; axis < dimensions.length; axis++) {
+            long digit = digit(key, axis);
+            values[axis] = digit == radix[axis] - 1 ? null : dictionaries[axis].decode((int) digit);
+        }
+        LocalDate period = null;
+        if (bucket != null) {
+            long digit = digit(key, dimensions.length);
+            period = digit == radix[dimensions.length] - 1 ? null : bucket.fromOrdinal(firstBucket + digit);
+        }
+        return new GroupKey(dimensions, values, period);
+    }
+
+    private long digit(long key, int axis) {
+        return key / multiplier[axis] % radix[axis];
+    }
+}
@@ -0,0 +1,57 @@
+package com.assignment.assignment2;
+
+/**
+ * Count, sum, min and max of the amounts of one group of sales.
+ */
+public final class GroupStats {
+
+    /** The statistics of a group without sales. */
+    public static final GroupStats EMPTY = new GroupStats(0, 0.0, Double.NaN, Double.NaN);
+
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    GroupStats(long count, double sum, double min, double max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return The average amount, or 0.0 for an empty group.
+     */
+    public double getAverage() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    /**
+     * @return The smallest amount, or NaN for an empty group.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return The largest amount, or NaN for an empty group.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GroupStats{count=%d, sum=%.2f, avg=%.2f, min=%.2f, max=%.2f}",
+                count, sum, getAverage(), min, max);
+    }
+}
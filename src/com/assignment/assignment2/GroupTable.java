@@ -0,0 +1,164 @@
+package com.assignment.assignment2;
+
+import java.util.Arrays;
+
+/**
+ * Per-group count/sum/min/max, keyed by a packed group key ({@link GroupLayout}).
+ * <p>
+ * The groups are rows of parallel primitive arrays, found through an open-addressing
+ * table of longs, so aggregating a sale allocates nothing and no record is kept.
+ * Sums are Neumaier-compensated like {@link CompensatedSum}. Not thread-safe; use
+ * one per thread and {@link #merge} them.
+ */
+final class GroupTable {
+
+    private static final long FREE = -1L; // Packed keys are never negative
+
+    // Hash table: packed key -> row
+    private long[] table = new long[64];
+    private int[] rows = new int[64];
+
+    // One row per group
+    private int size = 0;
+    private long[] keys = new long[16];
+    private long[] counts = new long[16];
+    private double[] sums = new double[16];
+    private double[] compensations = new double[16];
+    private double[] mins = new double[16];
+    private double[] maxs = new double[16];
+
+    GroupTable() {
+        Arrays.fill(table, FREE);
+    }
+
+    void add(long key, double amount) {
+        int row = row(key);
+        counts[row]++;
+        addToSum(row, amount);
+        mins[row] = Math.min(mins[row], amount);
+        maxs[row] = Math.max(maxs[row], amount);
+    }
+
+    /**
+     * Adds every group of another table into this one.
+     *
+     * @return This table.
+     */
+    GroupTable merge(GroupTable other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other, i, other.keys[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a whole group of another table (or of this one) under a new key.
+     */
+    void add(GroupTable from, int fromRow, long key) {
+        long count = from.counts[fromRow];
+        double sum = from.sums[fromRow];
+        double compensation = from.compensations[fromRow];
+        double min = from.mins[fromRow];
+        double max = from.maxs[fromRow];
+
+        int row = row(key); // May grow this table, so the source values are read first
+        counts[row] += count;
+        addToSum(row, sum);
+        compensations[row] += compensation;
+        mins[row] = Math.min(mins[row], min);
+        maxs[row] = Math.max(maxs[row], max);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long keyAt(int row) {
+        return keys[row];
+    }
+
+    GroupStats statsAt(int row) {
+        return new GroupStats(counts[row], sums[row] + compensations[row], mins[row], maxs[row]);
+    }
+
+    /**
+     * @return The stats of the group, or {@link GroupStats#EMPTY} if it has no sales.
+     */
+    GroupStats get(long key) {
+        if (key < 0) {
+            return GroupStats.EMPTY;
+        }
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); table[slot] != FREE; slot = (slot + 1) & mask) {
+            if (table[slot] == key) {
+                return statsAt(rows[slot]);
+            }
+        }
+        return GroupStats.EMPTY;
+    }
+
+    private void addToSum(int row, double value) {
+        double sum = sums[row];
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensations[row] += (sum - t) + value;
+        } else {
+            compensations[row] += (value - t) + sum;
+        }
+        sums[row] = t;
+    }
+
+    // The row of a key, adding an empty group if the key is new
+    private int row(long key) {
+        int mask = table.length - 1;
+        int slot = slot(key, mask);
+        for (; table[slot] != FREE; slot = (slot + 1) & mask) {
+            if (table[slot] == key) {
+                return rows[slot];
+            }
+        }
+        if (size == keys.length) {
+            growRows();
+        }
+        int row = size++;
+        keys[row] = key;
+        mins[row] = Double.POSITIVE_INFINITY;
+        maxs[row] = Double.NEGATIVE_INFINITY;
+        table[slot] = key;
+        rows[slot] = row;
+        if (size * 2 > table.length) {
+            rehash(); // Keep the load factor at or below 1/2
+        }
+        return row;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L; // Spread consecutive keys over the table
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void growRows() {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        compensations = Arrays.copyOf(compensations, capacity);
+        mins = Arrays.copyOf(mins, capacity);
+        maxs = Arrays.copyOf(maxs, capacity);
+    }
+
+    private void rehash() {
+        table = new long[table.length * 2];
+        rows = new int[rows.length * 2];
+        Arrays.fill(table, FREE);
+        int mask = table.length - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = slot(keys[row], mask);
+            while (table[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = keys[row];
+            rows[slot] = row;
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.assignment.assignment2;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
     public static void main(String[] args) {
         System.out.println("--- Assignment 2: Sales Data Analysis ---");
 
-        // 1. Load Data
-        List<SalesRecord> data = CsvLoader.loadSales("sales.csv");
+        // Streaming mode: one pass, constant memory, no List<SalesRecord>
+        if (args.length > 0 && args[0].equals("--stream")) {
+            runStreaming("sales.csv");
+            return;
+        }
+
+        // Follow mode: keep reading rows appended to the file, with live aggregates
+        if (args.length > 0 && args[0].equals("--follow")) {
+            runFollowing("sales.csv");
+            return;
+        }
+
+        // 1. Load Data (from the binary snapshot when sales.csv has not changed since the last run)
+        List<SalesRecord> data = CsvLoader.loadSalesWithSnapshot("sales.csv");
         if (data.isEmpty()) {
             System.out.println("No data found. Ensure 'sales.csv' is in the project root.");
             return;
@@ -43,4 +59,50 @@ public class Main {
             System.out.println("  -> Example: " + salesList.get(0).getProduct());
         });
     }
-}
\ No newline at end of file
+
+    private static void runStreaming(String filePath) {
+        SalesAggregator aggregator = new SalesAggregator();
+        try {
+            CsvLoader.streamSales(filePath, aggregator);
+        } catch (IOException e) {
+            System.out.println("Could not read '" + filePath + "': " + e.getMessage());
+            return;
+        }
+        System.out.println("Streamed " + aggregator.getCount() + " records.");
+
+        System.out.println("\n--- [Streaming] Revenue & Average ---");
+        System.out.printf("Total Revenue: $%.2f%n", aggregator.calculateTotalRevenue());
+        System.out.printf("Average Sale:  $%.2f%n", aggregator.calculateAverageSales());
+
+        System.out.println("\n--- [Streaming] Highest Value Sale ---");
+        aggregator.findHighestValueSale().ifPresent(System.out::println);
+
+        System.out.println("\n--- [Streaming] Sales by Category ---");
+        Map<String, Double> revenueByCategory = aggregator.getRevenueByCategory();
+        aggregator.getCountByCategory().forEach((category, count) ->
+                System.out.printf("Category: %s (%d items, $%.2f)%n", category, count, revenueByCategory.get(category)));
+
+        System.out.println("\n--- [Streaming] Revenue by Region ---");
+        aggregator.getRevenueByRegion().forEach((region, revenue) -> System.out.printf("%s: $%.2f%n", region, revenue));
+    }
+
+    private static void runFollowing(String filePath) {
+        SalesAnalysisService service = new SalesAnalysisService(new ArrayList<>(), true);
+        SalesFileFollower follower = new SalesFileFollower(Path.of(filePath), service);
+        System.out.println("Following " + filePath + " (Ctrl+C to stop)...");
+        try {
+            while (true) {
+                int added = follower.poll();
+                if (added > 0) {
+                    System.out.printf("+%d records | Total Revenue: $%.2f | Average Sale: $%.2f%n",
+                            added, service.calculateTotalRevenue(), service.calculateAverageSales());
+                }
+                TimeUnit.SECONDS.sleep(1);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read '" + filePath + "': " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.assignment.assignment2;
+
+import com.assignment.assignment1.AbstractWorker;
+import com.assignment.assignment1.CustomBlockingBuffer;
+import com.assignment.assignment1.ReadableBuffer;
+import com.assignment.assignment1.SharedBuffer;
+import com.assignment.assignment1.WorkerThreadMode;
+import com.assignment.assignment1.WritableBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Loads a sales CSV into a {@link SalesAnalysisService} with the producer/consumer
+ * machinery of assignment 1, so reading, parsing and aggregation overlap.
+ * <pre>
+ *  reader  --LineBatch--&gt;  N parsers  --ParsedBatch--&gt;  aggregation (calling thread)
+ * </pre>
+ * <ul>
+ * <li><b>Reader:</b> reads the file in blocks cut at the last line break and puts
+ *     them into a bounded {@link SharedBuffer}. It blocks while the parsers are
+ *     behind, so at most a few blocks are in memory at once.</li>
+ * <li><b>Parsers:</b> each has its own {@link SalesCsvParser} and turns blocks into
+ *     records and malformed-row reports. The last parser to finish completes the
+ *     second buffer.</li>
+ * <li><b>Aggregation:</b> puts the parsed blocks back into file order, reports the
+ *     malformed rows and appends the records to the service, which updates its
+ *     cached aggregates and indexes incrementally.</li>
+ * </ul>
+ * The service receives the records in file order, as if the file had been loaded with {@link CsvLoader}.
+ */
+public final class PipelinedCsvLoader {
+
+    // Bytes per block handed to a parser; a longer line gets a block of its own
+    static final int DEFAULT_BLOCK_BYTES = 256 << 10;
+
+    // Blocks waiting in each buffer per parser, so a parser never waits for the reader between two blocks
+    private static final int BLOCKS_PER_PARSER = 2;
+
+    private PipelinedCsvLoader() {
+    }
+
+    /**
+     * Loads the file into the service. Malformed rows are reported on System.err (with their line number) and skipped.
+     *
+     * @param file    The CSV file.
+     * @param service Receives the records, appended in file order.
+     * @param parsers The number of parser threads.
+     * @return The number of records appended.
+     * @throws IOException          If the file cannot be read.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public static long load(Path file, SalesAnalysisService service, int parsers) throws IOException, InterruptedException {
+        return load(file, service, parsers, SalesCsvParser.PRINT_TO_STDERR);
+    }
+
+    /**
+     * Same as {@link #load(Path, SalesAnalysisService, int)}, but reports malformed rows to the given listener.
+     * The listener is called on the calling thread, in file order.
+     */
+    public static long load(Path file, SalesAnalysisService service, int parsers, SalesCsvParser.ErrorListener errors)
+            throws IOException, InterruptedException {
+        return load(file, service, parsers, errors, DEFAULT_BLOCK_BYTES);
+    }
+
+    // Visible for tests: small blocks exercise the reordering and the lines split across reads
+    static long load(Path file, SalesAnalysisService service, int parsers, SalesCsvParser.ErrorListener errors,
+                     int blockBytes) throws IOException, InterruptedException {
+        return load(file, service, parsers, errors, blockBytes, SalesCsvParser::new);
+    }
+
+    // Visible for tests: the factory gets the listener that collects a block's malformed rows
+    static long load(Path file, SalesAnalysisService service, int parsers, SalesCsvParser.ErrorListener errors,
+                     int blockBytes, Function<SalesCsvParser.ErrorListener, SalesCsvParser> parserFactory)
+            throws IOException, InterruptedException {
+        if (parsers <= 0 || blockBytes <= 0) {
+            throw new IllegalArgumentException("Need at least one parser and a positive block size");
+        }
+        SharedBuffer<LineBatch> lines = new CustomBlockingBuffer<>(parsers * BLOCKS_PER_PARSER);
+        SharedBuffer<ParsedBatch> parsed = new CustomBlockingBuffer<>(parsers * BLOCKS_PER_PARSER);
+        AtomicInteger runningParsers = new AtomicInteger(parsers);
+
+        ExecutorService executor = WorkerThreadMode.PLATFORM.newExecutor("PIPELINE-", parsers + 1);
+        // Completion order: a failed worker is seen before the workers it left blocked (e.g. the
+        // reader on a full buffer once every parser has died), and shutdownNow() then unblocks them
+        CompletionService<Void> completions = new ExecutorCompletionService<>(executor);
+        try {
+            completions.submit(new Reader(lines, file, blockBytes), null);
+            for (int p = 0; p < parsers; p++) {
+                completions.submit(new Parser(lines, parsed, runningParsers, parserFactory), null);
+            }
+            long records;
+            try {
+                records = aggregate(parsed, service, errors);
+            } catch (IllegalStateException e) {
+                awaitAll(completions, parsers + 1); // A failed worker explains the missing block better
+                throw e;
+            }
+            awaitAll(completions, parsers + 1);
+            return records;
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            // Unblocks the workers if a worker or the aggregation failed, or the caller was interrupted
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies the parsed blocks in file order; blocks that arrive early wait in a map.
+     */
+    private static long aggregate(ReadableBuffer<ParsedBatch> parsed, SalesAnalysisService service,
+                                  SalesCsvParser.ErrorListener errors) throws InterruptedException {
+        Map<Long, ParsedBatch> early = new HashMap<>();
+        long next = 0;
+        long records = 0;
+        ParsedBatch batch;
+        while ((batch = parsed.consume()) != null) {
+            early.put(batch.sequence, batch);
+            while ((batch = early.remove(next)) != null) {
+                for (MalformedRow row : batch.malformed) {
+                    errors.onMalformedRow(row.lineNumber, row.line, row.reason);
+                }
+                if (!batch.records.isEmpty()) {
+                    service.append(batch.records);
+                }
+                records += batch.records.size();
+                next++;
+            }
+        }
+        if (!early.isEmpty()) {
+            // Only possible if a worker failed; its exception is reported by the caller
+            throw new IllegalStateException("Block " + next + " was never parsed");
+        }
+        return records;
+    }
+
+    // Throws as soon as any worker has failed, whatever the state of the others
+    private static void awaitAll(CompletionService<Void> completions, int tasks)
+            throws InterruptedException, ExecutionException {
+        for (int finished = 0; finished < tasks; finished++) {
+            completions.take().get();
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * Producer stage: reads the file into blocks of whole lines.
+     */
+    private static final class Reader extends AbstractWorker<WritableBuffer<LineBatch>> {
+        private final Path file;
+        private final int blockBytes;
+
+        Reader(WritableBuffer<LineBatch> buffer, Path file, int blockBytes) {
+            super(buffer);
+            this.file = file;
+            this.blockBytes = blockBytes;
+        }
+
+        @Override
+        public void run() {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                byte[] block = new byte[blockBytes];
+                int filled = 0;
+                long sequence = 0;
+                long lineNumber = 1;
+                while (true) {
+                    if (filled == block.length) {
+                        block = Arrays.copyOf(block, block.length * 2); // One line longer than the block
+                    }
+                    int read = channel.read(ByteBuffer.wrap(block, filled, block.length - filled));
+                    if (read < 0) {
+                        break;
+                    }
+                    filled += read;
+
+                    int cut = lastLineBreak(block, filled) + 1;
+                    if (cut == 0 || filled < block.length) {
+                        continue; // Fill the block before handing it over
+                    }
+                    // The block goes to a parser as is; the unfinished last line starts the next one
+                    byte[] rest = new byte[Math.max(blockBytes, filled - cut)];
+                    System.arraycopy(block, cut, rest, 0, filled - cut);
+                    buffer.produce(new LineBatch(sequence++, block, cut, lineNumber));
+                    lineNumber += countLines(block, cut);
+                    block = rest;
+                    filled -= cut;
+                }
+                if (filled > 0) {
+                    buffer.produce(new LineBatch(sequence, block, filled, lineNumber));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // Lets the parsers finish even if reading failed
+                buffer.setDone(true);
+            }
+        }
+
+        private static int lastLineBreak(byte[] bytes, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int countLines(byte[] bytes, int length) {
+            int lines = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * Consumer stage: parses blocks and passes the results on to the aggregation.
+     */
+    private static final class Parser extends AbstractWorker<ReadableBuffer<LineBatch>> {
+        private final WritableBuffer<ParsedBatch> output;
+        private final AtomicInteger runningParsers;
+        private final List<MalformedRow> malformed = new ArrayList<>();
+        private final SalesCsvParser parser;
+
+        Parser(ReadableBuffer<LineBatch> buffer, WritableBuffer<ParsedBatch> output, AtomicInteger runningParsers,
+               Function<SalesCsvParser.ErrorListener, SalesCsvParser> parserFactory) {
+            super(buffer);
+            this.output = output;
+            this.runningParsers = runningParsers;
+            this.parser = parserFactory.apply(
+                    (lineNumber, line, reason) -> malformed.add(new MalformedRow(lineNumber, line, reason)));
+        }
+
+        @Override
+        public void run() {
+            try {
+                LineBatch batch;
+                while ((batch = buffer.consume()) != null) {
+                    List<SalesRecord> records = new ArrayList<>();
+                    parser.parseBlock(ByteBuffer.wrap(batch.bytes), batch.length, batch.firstLineNumber,
+                            batch.sequence == 0, records::add);
+                    output.produce(new ParsedBatch(batch.sequence, records, new ArrayList<>(malformed)));
+                    malformed.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // The last parser to finish completes the aggregation's buffer
+                if (runningParsers.decrementAndGet() == 0) {
+                    output.setDone(true);
+                }
+            }
+        }
+    }
+
+    private static final class LineBatch {
+        final long sequence;
+        final byte[] bytes;
+        final int length;
+        final long firstLineNumber;
+
+        LineBatch(long sequence, byte[] bytes, int length, long firstLineNumber) {
+            this.sequence = sequence;
+            this.bytes = bytes;
+            this.length = length;
+            this.firstLineNumber = firstLineNumber;
+        }
+    }
+
+    private static final class ParsedBatch {
+        final long sequence;
+        final List<SalesRecord> records;
+        final List<MalformedRow> malformed;
+
+        ParsedBatch(long sequence, List<SalesRecord> records, List<MalformedRow> malformed) {
+            this.sequence = sequence;
+            this.records = records;
+            this.malformed = malformed;
+        }
+    }
+
+    private static final class MalformedRow {
+        final long lineNumber;
+        final String line;
+        final String reason;
+
+        MalformedRow(long lineNumber, String line, String reason) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+}
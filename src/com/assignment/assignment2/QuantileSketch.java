@@ -0,0 +1,155 @@
+package com.assignment.assignment2;
+
+import java.util.Arrays;
+
+/**
+ * Approximate quantiles of a stream of doubles in small, mergeable memory (KLL style).
+ * <p>
+ * Values go into level 0. When a level holds {@code k} values it is sorted and
+ * compacted: every other value (starting at a random offset) moves up one level,
+ * where each value stands for twice as many inputs, and the rest are discarded.
+ * The total weight stays exactly equal to the count, memory is O(k log(n/k)), and
+ * the rank error is around {@code log2(n/k) / k} of n (under 1% for the default k
+ * on millions of values). Sketches built on different threads or from different
+ * files {@link #merge} into one with the same guarantees, so parallel and streaming
+ * analysis can share it. The minimum and maximum are exact. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    private static final int DEFAULT_K = 256;
+
+    private final int k;
+    private double[][] levels = new double[0][];
+    private int[] sizes = new int[0];
+
+    private long count = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // Fixed seed: the same input always gives the same sketch
+    private long random = 0x9E3779B97F4A7C15L;
+
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k Values per level; larger is more accurate. Rounded up to an even number, at least 8.
+     */
+    public QuantileSketch(int k) {
+        int even = k + (k & 1); // Even, so a compaction halves a level exactly and keeps the weight
+        this.k = Math.max(8, even);
+    }
+
+    /**
+     * Adds one value.
+     */
+    public void add(double value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        insert(0, value);
+    }
+
+    /**
+     * Adds every value summarised by another sketch.
+     *
+     * @param other The sketch to add; it is not modified.
+     * @return This sketch.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) {
+                insert(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * @return The number of values added.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @param q The rank, from 0.0 (minimum) to 1.0 (maximum); e.g. 0.95 for the p95.
+     * @return An approximation of the value at rank q, or NaN if the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0.0) {
+            return min;
+        }
+        if (q == 1.0) {
+            return max;
+        }
+
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        double[] values = new double[retained];
+        int[] levelOf = new int[retained];
+        Integer[] order = new Integer[retained];
+        int n = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                values[n] = levels[level][i];
+                levelOf[n] = level;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double target = q * count;
+        long weight = 0;
+        for (int i : order) {
+            weight += 1L << levelOf[i];
+            if (weight >= target) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    private void insert(int level, double value) {
+        if (level == levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            levels[level] = new double[k];
+        }
+        levels[level][sizes[level]++] = value;
+        if (sizes[level] == k) {
+            compact(level);
+        }
+    }
+
+    // Promotes the odd or the even positions of the sorted level, chosen at random
+    private void compact(int level) {
+        double[] buffer = levels[level];
+        Arrays.sort(buffer, 0, k);
+        sizes[level] = 0;
+        for (int i = nextBit(); i < k; i += 2) {
+            insert(level + 1, buffer[i]);
+        }
+    }
+
+    // xorshift64
+    private int nextBit() {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) (random >>> 63);
+    }
+}
@@ -0,0 +1,74 @@
+package com.assignment.assignment2;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Collects the sales of one region (case-insensitive), comparing the name once per
+ * distinct region instance instead of once per sale.
+ * <p>
+ * The sales of one load share their region Strings (see {@link SalesCsvParser}), so a
+ * dataset holds a handful of region instances however many rows it has. The outcome of
+ * {@code equalsIgnoreCase} is remembered per instance, by identity, and every further
+ * sale with the same instance costs one identity-hash lookup. Only the first
+ * {@link #MAX_MEMO} instances are remembered, so records that do not share their
+ * Strings fall back to one comparison each. Not thread-safe; use one per thread and
+ * {@link #merge} them.
+ */
+final class RegionFilter implements Consumer<SalesRecord> {
+
+    // Distinct region instances remembered per filter
+    static final int MAX_MEMO = 4096;
+
+    private final String region;
+    private final Map<String, Boolean> memo = new IdentityHashMap<>();
+    private final List<SalesRecord> matches = new ArrayList<>();
+    private long comparisons = 0;
+
+    RegionFilter(String region) {
+        this.region = region;
+    }
+
+    @Override
+    public void accept(SalesRecord sale) {
+        String value = sale.getRegion();
+        Boolean match = memo.get(value);
+        if (match == null) {
+            match = region.equalsIgnoreCase(value); // Sales without a region never match
+            comparisons++;
+            if (memo.size() < MAX_MEMO) {
+                memo.put(value, match);
+            }
+        }
+        if (match) {
+            matches.add(sale);
+        }
+    }
+
+    /**
+     * @param other The matches among sales that come after this one's; it is not modified.
+     * @return This instance, now holding the matches of both, in order.
+     */
+    RegionFilter merge(RegionFilter other) {
+        matches.addAll(other.matches);
+        comparisons += other.comparisons;
+        return this;
+    }
+
+    /**
+     * @return The matching sales, in the order they were accepted.
+     */
+    List<SalesRecord> matches() {
+        return matches;
+    }
+
+    /**
+     * @return The number of name comparisons made, over this filter and the merged ones.
+     */
+    long comparisons() {
+        return comparisons;
+    }
+}
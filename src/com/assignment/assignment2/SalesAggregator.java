@@ -0,0 +1,149 @@
+package com.assignment.assignment2;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass, running aggregation over a stream of sales.
+ * <p>
+ * This is the streaming counterpart of {@link SalesAnalysisService}: instead of
+ * holding every {@link SalesRecord} in a list, it is used as the sink of
+ * {@link CsvLoader#streamSales} and updates all aggregates as each record passes
+ * by. Memory use depends only on the number of distinct categories and regions,
+ * not on the size of the file. Sums are compensated ({@link CompensatedSum}), so
+ * merging per-thread aggregators gives the same totals as one sequential pass.
+ * Amount quantiles come from a mergeable {@link QuantileSketch}.
+ * <p>
+ * Not thread-safe: feed it from one thread, or give every thread its own
+ * aggregator and {@link #merge} them at the end.
+ */
+public class SalesAggregator implements Consumer<SalesRecord> {
+
+    private long count = 0;
+    private final CompensatedSum total = new CompensatedSum();
+    private SalesRecord highest = null;
+    private final QuantileSketch amounts = new QuantileSketch();
+
+    private final Map<String, Totals> byCategory = new HashMap<>();
+    private final Map<String, Totals> byRegion = new HashMap<>();
+
+    /**
+     * Adds one sale to every running aggregate.
+     */
+    @Override
+    public void accept(SalesRecord sale) {
+        count++;
+        total.add(sale.getAmount());
+        if (highest == null || sale.getAmount() > highest.getAmount()) {
+            highest = sale; // Strictly greater: on ties the first sale wins, like Stream.max
+        }
+        amounts.add(sale.getAmount());
+        byCategory.computeIfAbsent(sale.getCategory(), k -> new Totals()).add(sale.getAmount());
+        byRegion.computeIfAbsent(sale.getRegion(), k -> new Totals()).add(sale.getAmount());
+    }
+
+    /**
+     * Folds the aggregates of another aggregator (e.g. from another thread) into this one.
+     *
+     * @param other The aggregator to add; it is not modified.
+     * @return This aggregator.
+     */
+    public SalesAggregator merge(SalesAggregator other) {
+        count += other.count;
+        total.add(other.total);
+        if (other.highest != null && (highest == null || other.highest.getAmount() > highest.getAmount())) {
+            highest = other.highest;
+        }
+        amounts.merge(other.amounts);
+        other.byCategory.forEach((category, totals) -> byCategory.computeIfAbsent(category, k -> new Totals()).add(totals));
+        other.byRegion.forEach((region, totals) -> byRegion.computeIfAbsent(region, k -> new Totals()).add(totals));
+        return this;
+    }
+
+    /**
+     * @return The number of sales seen so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The total of all amounts seen so far.
+     */
+    public double calculateTotalRevenue() {
+        return total.value();
+    }
+
+    /**
+     * @return The average amount, or 0.0 if no sale has been seen.
+     */
+    public double calculateAverageSales() {
+        return count == 0 ? 0.0 : total.value() / count;
+    }
+
+    /**
+     * @return The sale with the highest amount, or empty if no sale has been seen.
+     */
+    public Optional<SalesRecord> findHighestValueSale() {
+        return Optional.ofNullable(highest);
+    }
+
+    /**
+     * @param q The rank, from 0.0 to 1.0 (e.g. 0.95 for the p95).
+     * @return The approximate amount at that rank, or empty if no sale has been seen.
+     */
+    public OptionalDouble getAmountQuantile(double q) {
+        double value = amounts.quantile(q);
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of(value);
+    }
+
+    /**
+     * @return The number of sales per category, sorted by category.
+     */
+    public Map<String, Long> getCountByCategory() {
+        Map<String, Long> result = new TreeMap<>();
+        byCategory.forEach((category, totals) -> result.put(category, totals.count));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return The total amount per category, sorted by category.
+     */
+    public Map<String, Double> getRevenueByCategory() {
+        return sums(byCategory);
+    }
+
+    /**
+     * @return The total amount per region, sorted by region.
+     */
+    public Map<String, Double> getRevenueByRegion() {
+        return sums(byRegion);
+    }
+
+    private static Map<String, Double> sums(Map<String, Totals> groups) {
+        Map<String, Double> result = new TreeMap<>();
+        groups.forEach((key, totals) -> result.put(key, totals.sum.value()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    // Running count and sum of one group
+    private static final class Totals {
+        long count;
+        final CompensatedSum sum = new CompensatedSum();
+
+        void add(double amount) {
+            count++;
+            sum.add(amount);
+        }
+
+        void add(Totals other) {
+            count += other.count;
+            sum.add(other.sum);
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package com.assignment.assignment2;
 
-import java.util.Comparator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -15,72 +25,505 @@ import java.util.stream.Collectors;
  * <li>Data Aggregation</li>
  * <li>Grouping Operations</li>
  * </ul>
+ * An indexed service builds, on the first region or category query, the record
+ * positions of every region and category, numbered by dictionaries that belong to
+ * the index (and so go away with it on {@link #replaceAll}). Later {@link #filterByRegion} and
+ * {@link #getSalesByCategory} calls then cost O(result) instead of a full scan.
+ * <p>
+ * Total, count, average and maximum come from one cached {@link SalesAggregator}
+ * pass, filled on the first call. The service keeps its own copy of the records;
+ * {@link #append} and {@link #replaceAll} are the only way to change them. Appends
+ * update the summary and the indexes in place, in time proportional to the new
+ * records, so live data (see {@link SalesFileFollower}) does not slow queries down.
+ * <p>
+ * Because appends grow the records and indexes in place, every query holds the read
+ * side of a read-write lock and the two mutators hold the write side. Queries run
+ * concurrently with each other; a query that arrives during an append waits for it,
+ * so it never sees half-grown arrays or prefix sums. The cached summary itself is an
+ * immutable object swapped by reference.
+ * <p>
+ * Every scan runs in the service's {@link ExecutionMode}: sequentially, as parallel
+ * streams, or on a dedicated fork-join pool.
+ * <p>
+ * Date-range queries and rollups use a date-sorted index with prefix sums
+ * ({@link SalesDateIndex}), built on the first such query.
+ * <p>
+ * {@link #aggregateBy} computes count/sum/avg/min/max for any combination of
+ * dimensions and a date bucket without materializing the groups' records, and
+ * {@link #buildCube} precomputes those results, rollups included, for O(1) lookups.
+ * Grouping by a dimension (these two, per-value top-K and per-value rollups) needs
+ * every sale to have a value in it; otherwise an IllegalArgumentException names the sale.
  */
 public class SalesAnalysisService {
 
     private final List<SalesRecord> salesData;
+    private final boolean indexed;
+    private final ExecutionMode mode;
+
+    // Built on first use; extended by append, dropped by replaceAll
+    private volatile Index index;
+    private volatile SalesAggregator summary;
+    private volatile SalesDateIndex dateIndex;
+
+    // Read side: every query; write side: append and replaceAll
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     public SalesAnalysisService(List<SalesRecord> salesData) {
-        this.salesData = salesData;
+        this(salesData, false);
+    }
+
+    /**
+     * @param salesData The dataset to analyse; it is copied.
+     * @param indexed   True to answer region and category queries from a lazily built index.
+     */
+    public SalesAnalysisService(List<SalesRecord> salesData, boolean indexed) {
+        this(salesData, indexed, ExecutionMode.SEQUENTIAL);
+    }
+
+    /**
+     * @param salesData The dataset to analyse; it is copied.
+     * @param indexed   True to answer region and category queries from a lazily built index.
+     * @param mode      How scans over the dataset are executed.
+     */
+    public SalesAnalysisService(List<SalesRecord> salesData, boolean indexed, ExecutionMode mode) {
+        this.salesData = new ArrayList<>(salesData);
+        this.indexed = indexed;
+        this.mode = mode;
+    }
+
+    /**
+     * Adds records to the end of the dataset.
+     * The cached summary and indexes are extended with just the new records. The only exception
+     * is a record dated before the latest one: the date index is then rebuilt on its next use.
+     *
+     * @param records The new records, in order.
+     */
+    public void append(Collection<SalesRecord> records) {
+        lock.writeLock().lock();
+        try {
+            appendLocked(records);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void appendLocked(Collection<SalesRecord> records) {
+        salesData.addAll(records);
+        SalesAggregator current = summary;
+        if (current != null) {
+            SalesAggregator extended = new SalesAggregator().merge(current);
+            records.forEach(extended);
+            summary = extended;
+        }
+        if (index != null) {
+            index.addAll(records);
+        }
+        if (dateIndex != null && !dateIndex.appendAll(records)) {
+            dateIndex = null;
+        }
+    }
+
+    /**
+     * Replaces the whole dataset (e.g. after a reload) and drops every cached result.
+     *
+     * @param records The new dataset; it is copied.
+     */
+    public void replaceAll(Collection<SalesRecord> records) {
+        lock.writeLock().lock();
+        try {
+            salesData.clear();
+            salesData.addAll(records);
+            summary = null;
+            index = null;
+            dateIndex = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs a query under the read lock, so no append changes the data or indexes under it
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * REQUIREMENT: Functional Programming (Filtering).
-     * Filters the dataset to return only sales from a specific region.
+     * Filters the dataset to return only sales from a specific region (case-insensitive).
+     * <p>
+     * An indexed service compares the name once against the distinct regions and
+     * then only reads the positions of the matching ones. A scan compares it once per
+     * distinct region instance and matches the other sales by identity ({@link RegionFilter}).
+     * Sales without a region never match.
      *
      * @param region The region name to filter by (e.g., "North").
      * @return A list of matching SalesRecords.
      */
     public List<SalesRecord> filterByRegion(String region) {
-        return salesData.stream()
-                .filter(s -> s.getRegion().equalsIgnoreCase(region)) // Lambda Expression used here
-                .collect(Collectors.toList());
+        if (indexed) {
+            return read(() -> index().filter(region));
+        }
+        return scanRegion(region).matches();
+    }
+
+    // The scan behind filterByRegion; visible for tests, which count its comparisons
+    RegionFilter scanRegion(String region) {
+        return read(() -> mode.run(() -> mode.stream(salesData)
+                // One filter per thread; merged in dataset order, also in parallel
+                .collect(() -> new RegionFilter(region), RegionFilter::accept, RegionFilter::merge)));
     }
 
     /**
      * REQUIREMENT: Data Aggregation (Sum).
-     * Calculates the total revenue across all sales using stream mapping.
+     * Calculates the total revenue across all sales (from the cached summary).
      *
      * @return The total sum of amounts.
      */
     public double calculateTotalRevenue() {
-        return salesData.stream()
-                .mapToDouble(s -> s.getAmount()) // Lambda Expression
-                .sum(); // Terminal operation for aggregation
+        return read(this::summary).calculateTotalRevenue();
     }
 
     /**
      * REQUIREMENT: Grouping Operations.
      * Groups sales records by their Category (e.g., "Electronics", "Clothing").
+     * The sales of one load share their category Strings, so most key lookups end on
+     * the map's identity check before {@code equals}; records from elsewhere compare by value.
+     * In a parallel mode the groups are filled concurrently, and the sales within a group
+     * are not in dataset order.
      *
      * @return A Map where Key is the category name and Value is the list of sales.
      */
     public Map<String, List<SalesRecord>> getSalesByCategory() {
-        return salesData.stream()
-                .collect(Collectors.groupingBy(SalesRecord::getCategory));
+        if (indexed) {
+            return read(() -> index().groupByCategory());
+        }
+        if (mode.isParallel()) {
+            return read(() -> mode.run(() -> mode.stream(salesData)
+                    .collect(Collectors.groupingByConcurrent(SalesRecord::getCategory))));
+        }
+        return read(() -> salesData.stream()
+                .collect(Collectors.groupingBy(SalesRecord::getCategory)));
     }
 
     /**
      * REQUIREMENT: Stream Operations (Max).
-     * Finds the single sale with the highest monetary amount.
+     * Finds the single sale with the highest monetary amount (the first one on ties).
      *
      * @return An Optional containing the highest sale, or empty if no data exists.
      */
     public Optional<SalesRecord> findHighestValueSale() {
-        return salesData.stream()
-                .max(Comparator.comparingDouble(SalesRecord::getAmount));
+        return read(this::summary).findHighestValueSale();
     }
 
     /**
      * REQUIREMENT: Aggregation (Average).
      * Calculates the average transaction value.
      *
-     * @return The average amount.
+     * @return The average amount, or 0.0 if no data exists.
      */
     public double calculateAverageSales() {
-        return salesData.stream()
-                .mapToDouble(SalesRecord::getAmount)
-                .average()
-                .orElse(0.0);
+        return read(this::summary).calculateAverageSales();
+    }
+
+    /**
+     * Approximate percentile of the sale amounts, from the cached summary's quantile sketch.
+     *
+     * @param q The rank, from 0.0 (smallest) to 1.0 (largest); e.g. 0.95 for the p95.
+     * @return The amount at that rank (within about 1% of the rank), or empty if no data exists.
+     */
+    public OptionalDouble calculateAmountQuantile(double q) {
+        return read(this::summary).getAmountQuantile(q);
+    }
+
+    /**
+     * The k highest-value sales, found in one pass with a bounded min-heap (O(n log k))
+     * instead of sorting the dataset.
+     *
+     * @param k The number of sales to return.
+     * @return Up to k sales, highest amount first.
+     */
+    public List<SalesRecord> findTopSales(int k) {
+        return read(() -> mode.run(() -> mode.stream(salesData)
+                .collect(() -> new TopK(k), TopK::accept, TopK::merge)))
+                .toList();
+    }
+
+    /**
+     * The k highest-value sales of every category, product or region, in one pass
+     * with one bounded heap per value.
+     *
+     * @param k         The number of sales per value.
+     * @param dimension The column to group by.
+     * @return Up to k sales per value (highest amount first), keyed and sorted by value.
+     */
+    public Map<String, List<SalesRecord>> findTopSales(int k, SalesDimension dimension) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        Map<String, TopK> heaps = read(() -> mode.run(() -> mode.stream(salesData)
+                .collect(HashMap<String, TopK>::new,
+                        (map, sale) -> map.computeIfAbsent(dimension.groupValue(sale), key -> new TopK(k)).accept(sale),
+                        (left, right) -> right.forEach((key, top) -> left.merge(key, top, TopK::merge)))));
+        Map<String, List<SalesRecord>> result = new TreeMap<>();
+        heaps.forEach((key, top) -> result.put(key, top.toList()));
+        return result;
+    }
+
+    /**
+     * Group-by over any combination of category, product and region.
+     * Each group keeps only primitive count/sum/min/max accumulators, never its records.
+     *
+     * @param dimensions The columns to group by, in key order; none for a single total group.
+     * @return The stats of every non-empty group.
+     */
+    public Map<GroupKey, GroupStats> aggregateBy(SalesDimension... dimensions) {
+        return aggregate(null, dimensions);
+    }
+
+    /**
+     * Group-by over a date bucket and any combination of category, product and region,
+     * e.g. revenue per region per month.
+     *
+     * @param bucket     The date granularity; keys carry the bucket's first day.
+     * @param dimensions The columns to group by, in key order.
+     * @return The stats of every non-empty group.
+     */
+    public Map<GroupKey, GroupStats> aggregateBy(DateBucket bucket, SalesDimension... dimensions) {
+        return aggregate(bucket, dimensions);
+    }
+
+    /**
+     * Precomputes a cube over a few low-cardinality dimensions: every group of
+     * {@link #aggregateBy(SalesDimension...)} plus every rollup where some dimensions are "all".
+     *
+     * @param dimensions The cube's dimensions, in lookup order.
+     * @return The cube; a snapshot of the current data.
+     */
+    public SalesCube buildCube(SalesDimension... dimensions) {
+        return buildCube(null, dimensions);
+    }
+
+    /**
+     * {@link #buildCube(SalesDimension...)} with a date bucket as an extra dimension.
+     */
+    public SalesCube buildCube(DateBucket bucket, SalesDimension... dimensions) {
+        return read(() -> {
+            GroupLayout layout = GroupLayout.of(salesData, bucket, dimensions);
+            return SalesCube.rollUp(layout, group(layout));
+        });
+    }
+
+    private Map<GroupKey, GroupStats> aggregate(DateBucket bucket, SalesDimension[] dimensions) {
+        return read(() -> {
+            GroupLayout layout = GroupLayout.of(salesData, bucket, dimensions);
+            return decode(layout, group(layout));
+        });
+    }
+
+    private static Map<GroupKey, GroupStats> decode(GroupLayout layout, GroupTable table) {
+        Map<GroupKey, GroupStats> result = new HashMap<>();
+        for (int row = 0; row < table.size(); row++) {
+            result.put(layout.decode(table.keyAt(row)), table.statsAt(row));
+        }
+        return result;
+    }
+
+    // One pass in the execution mode; every thread fills its own table
+    private GroupTable group(GroupLayout layout) {
+        return mode.run(() -> mode.stream(salesData)
+                .collect(GroupTable::new, (table, sale) -> table.add(layout.key(sale), sale.getAmount()), GroupTable::merge));
+    }
+
+    /**
+     * Total revenue of the sales between two dates, in O(log n).
+     *
+     * @param from The first day, inclusive.
+     * @param to   The last day, inclusive.
+     * @return The sum of the amounts in the range, or 0.0 if there are none.
+     */
+    public double calculateRevenueBetween(LocalDate from, LocalDate to) {
+        return read(() -> dateIndex().revenueBetween(from, to));
+    }
+
+    /**
+     * @param from The first day, inclusive.
+     * @param to   The last day, inclusive.
+     * @return The sales between the two dates, sorted by date (dataset order within a day).
+     */
+    public List<SalesRecord> filterByDateRange(LocalDate from, LocalDate to) {
+        return read(() -> dateIndex().salesBetween(from, to));
+    }
+
+    /**
+     * Revenue per day, week or month, e.g. the daily revenue of a quarter.
+     * Buckets without sales are left out; a bucket that is cut by the range only
+     * counts the days inside it, but is still keyed by its first day.
+     *
+     * @param bucket The rollup granularity.
+     * @param from   The first day, inclusive.
+     * @param to     The last day, inclusive.
+     * @return The revenue per bucket, keyed and sorted by the bucket's first day.
+     */
+    public SortedMap<LocalDate, Double> getRevenueByDate(DateBucket bucket, LocalDate from, LocalDate to) {
+        return read(() -> dateIndex().revenueBy(bucket, from, to));
+    }
+
+    /**
+     * {@link #getRevenueByDate(DateBucket, LocalDate, LocalDate)} for every value of a dimension,
+     * e.g. the monthly revenue of each region.
+     *
+     * @return The rollup per dimension value (sorted), for the values that have sales in the range.
+     */
+    public Map<String, SortedMap<LocalDate, Double>> getRevenueByDate(DateBucket bucket, SalesDimension dimension,
+                                                                      LocalDate from, LocalDate to) {
+        return read(() -> dateIndex().revenueBy(bucket, dimension, from, to));
+    }
+
+    private SalesDateIndex dateIndex() {
+        SalesDateIndex current = dateIndex;
+        if (current == null) {
+            synchronized (this) {
+                current = dateIndex;
+                if (current == null) {
+                    current = new SalesDateIndex(salesData);
+                    dateIndex = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // One fused pass fills total, count and max together; repeated calls are free.
+    // In parallel, every thread fills its own aggregator and they are merged in order.
+    private SalesAggregator summary() {
+        SalesAggregator current = summary;
+        if (current == null) {
+            synchronized (this) {
+                current = summary;
+                if (current == null) {
+                    current = mode.run(() -> mode.stream(salesData)
+                            .collect(SalesAggregator::new, SalesAggregator::accept, SalesAggregator::merge));
+                    summary = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new Index(salesData);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Record positions per region and per category, over a copy of the records.
+     * Values are numbered by the index's own dictionaries, so the position lists
+     * can be arrays indexed by code. Appending records extends the lists in
+     * amortized O(1) per record.
+     */
+    private static final class Index {
+        private SalesRecord[] records = new SalesRecord[16];
+        private int size = 0;
+        private final ColumnDictionary regions = new ColumnDictionary();
+        private final ColumnDictionary categories = new ColumnDictionary();
+        private final Positions byRegion = new Positions();
+        private final Positions byCategory = new Positions();
+
+        Index(Collection<SalesRecord> sales) {
+            addAll(sales);
+        }
+
+        void addAll(Collection<SalesRecord> sales) {
+            for (SalesRecord sale : sales) {
+                if (size == records.length) {
+                    records = Arrays.copyOf(records, size * 2);
+                }
+                byRegion.add(regions.encode(sale.getRegion()), size);
+                byCategory.add(categories.encode(sale.getCategory()), size);
+                records[size++] = sale;
+            }
+        }
+
+        List<SalesRecord> filter(String region) {
+            int[] positions = null;
+            for (int code = 0; code < byRegion.codes(); code++) {
+                if (region.equalsIgnoreCase(regions.decode(code)) && byRegion.count(code) > 0) {
+                    int[] list = byRegion.toArray(code);
+                    positions = positions == null ? list : union(positions, list);
+                }
+            }
+            return positions == null ? new ArrayList<>() : select(positions);
+        }
+
+        Map<String, List<SalesRecord>> groupByCategory() {
+            Map<String, List<SalesRecord>> groups = new HashMap<>();
+            for (int code = 0; code < byCategory.codes(); code++) {
+                if (byCategory.count(code) > 0) {
+                    groups.put(categories.decode(code), select(byCategory.toArray(code)));
+                }
+            }
+            return groups;
+        }
+
+        private List<SalesRecord> select(int[] positions) {
+            List<SalesRecord> result = new ArrayList<>(positions.length);
+            for (int position : positions) {
+                result.add(records[position]);
+            }
+            return result;
+        }
+
+        // Two regions can differ only in case ("North", "north"); keep the rows in dataset order
+        private static int[] union(int[] a, int[] b) {
+            int[] merged = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, merged, a.length, b.length);
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+
+    // Growable, ascending position lists, one per dictionary code
+    private static final class Positions {
+        private int[][] lists = new int[0][];
+        private int[] counts = new int[0];
+
+        void add(int code, int position) {
+            if (code >= lists.length) {
+                lists = Arrays.copyOf(lists, code + 1);
+                counts = Arrays.copyOf(counts, code + 1);
+            }
+            int[] list = lists[code];
+            if (list == null) {
+                list = lists[code] = new int[8];
+            } else if (counts[code] == list.length) {
+                list = lists[code] = Arrays.copyOf(list, list.length * 2);
+            }
+            list[counts[code]++] = position;
+        }
+
+        int codes() {
+            return lists.length;
+        }
+
+        int count(int code) {
+            return counts[code];
+        }
+
+        int[] toArray(int code) {
+            return Arrays.copyOf(lists[code], counts[code]);
+        }
     }
-}
\ No newline at end of file
+}
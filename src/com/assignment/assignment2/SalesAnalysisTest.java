@@ -2,9 +2,22 @@ package com.assignment.assignment2;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -97,4 +110,537 @@ class SalesAnalysisTest {
         // Use another Lambda here to verify the result list
         assertTrue(northSales.stream().allMatch(s -> s.getRegion().equals("North")));
     }
-}
\ No newline at end of file
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 5: Byte-Level CSV Parsing
+    // Proof: Quoted fields, CRLF endings and rows that straddle mapping windows
+    // parse correctly, and malformed rows are reported by line number and skipped.
+    // ---------------------------------------------------------------
+    @Test
+    void testCsvParserHandlesQuotesAndMalformedRows() throws IOException {
+        Path file = Files.createTempFile("sales", ".csv");
+        try {
+            Files.writeString(file, "id,date,category,product,region,amount\r\n"
+                    + "1,2024-01-01,Electronics,\"Laptop, 15\"\"\",North,1200.00\r\n"
+                    + "2,2024-13-01,Home,Lamp,East,10\n"      // Invalid month
+                    + "3,2024-01-03,Home,Lamp,East\n"         // Missing amount
+                    + "\n"
+                    + " 4 , 2024-01-04 , Home , Lamp , West , 1e2 ");
+
+            List<String> errors = new ArrayList<>();
+            List<SalesRecord> records = new ArrayList<>();
+            // 32-byte windows force lines to be carried over between mappings
+            new SalesCsvParser((line, text, reason) -> errors.add(line + ": " + reason), 32)
+                    .parse(file, records::add);
+
+            assertEquals(2, records.size());
+            assertEquals("Laptop, 15\"", records.get(0).getProduct());
+            assertEquals(1200.00, records.get(0).getAmount(), 0.0);
+            assertEquals("West", records.get(1).getRegion());
+            assertEquals(100.0, records.get(1).getAmount(), 0.0);
+            assertEquals(List.of("3: invalid date in field 2", "4: expected 6 fields, found 5"), errors);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testCsvParserTrimsLikeStringTrimAndKeepsLongFractions() throws IOException {
+        Path file = Files.createTempFile("sales", ".csv");
+        try {
+            Files.writeString(file, "id,date,category,product,region,amount\n"
+                    + "1,2024-01-01,Home,Lamp,North\t,\t10.50\n"
+                    + "2,2024-01-02,Home,Lamp,South,0.0000000000000000000000012345\n" // 28 fraction digits
+                    + "3,2024-01-03,Home,Lamp,East,12.3456789012345678901234567\n");
+
+            List<String> errors = new ArrayList<>();
+            List<SalesRecord> records = new ArrayList<>();
+            new SalesCsvParser((line, text, reason) -> errors.add(line + ": " + reason)).parse(file, records::add);
+
+            assertEquals(List.of(), errors);
+            assertEquals(3, records.size());
+            assertEquals("North", records.get(0).getRegion(), "Tabs must be trimmed like String.trim() does.");
+            assertEquals(10.50, records.get(0).getAmount(), 0.0);
+            assertEquals(Double.parseDouble("0.0000000000000000000000012345"), records.get(1).getAmount(), 0.0);
+            assertEquals(Double.parseDouble("12.3456789012345678901234567"), records.get(2).getAmount(), 0.0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 6: Parallel Loading
+    // Proof: Loading in newline-aligned ranges on several threads returns the
+    // same records, in the same order, with the same error line numbers.
+    // ---------------------------------------------------------------
+    @Test
+    void testParallelLoadMatchesSequentialLoad() throws IOException {
+        Path file = Files.createTempFile("sales", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder("id,date,category,product,region,amount\n");
+            for (int i = 1; i <= 5000; i++) {
+                csv.append(i % 997 == 0 ? "broken row" : i + ",2024-01-01,Home,Item" + i + ",North," + i + ".25")
+                        .append('\n');
+            }
+            Files.writeString(file, csv);
+
+            List<Long> sequentialErrors = new ArrayList<>();
+            List<Long> parallelErrors = new ArrayList<>();
+            List<SalesRecord> sequential = CsvLoader.loadSales(file.toString(), (line, text, reason) -> sequentialErrors.add(line));
+            // 4 KB ranges split the ~200 KB file into many chunks
+            List<SalesRecord> parallel = CsvLoader.loadParallel(file, 4, (line, text, reason) -> parallelErrors.add(line), 4096);
+
+            assertEquals(4995, parallel.size());
+            assertEquals(sequential.toString(), parallel.toString(), "Parallel load lost or reordered records.");
+            assertEquals(List.of(998L, 1995L, 2992L, 3989L, 4986L), parallelErrors);
+            assertEquals(sequentialErrors, parallelErrors);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 7: Streaming Aggregation
+    // Proof: One pass over the file with a running aggregator gives the
+    // same answers as loading the list and analysing it with streams.
+    // ---------------------------------------------------------------
+    @Test
+    void testStreamingAggregationMatchesService() throws IOException {
+        SalesAggregator aggregator = new SalesAggregator();
+        assertEquals(15, CsvLoader.streamSales("sales.csv", aggregator));
+
+        assertEquals(service.calculateTotalRevenue(), aggregator.calculateTotalRevenue(), 1e-9);
+        assertEquals(service.calculateAverageSales(), aggregator.calculateAverageSales(), 1e-9);
+        assertEquals("Laptop", aggregator.findHighestValueSale().get().getProduct());
+        assertEquals(6L, aggregator.getCountByCategory().get("Electronics").longValue());
+        assertEquals(service.filterByRegion("North").stream().mapToDouble(SalesRecord::getAmount).sum(),
+                aggregator.getRevenueByRegion().get("North"), 1e-9);
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 8: Columnar Storage
+    // Proof: The primitive-array dataset answers every query exactly like
+    // the list-based service.
+    // ---------------------------------------------------------------
+    @Test
+    void testColumnarAnalysisMatchesService() {
+        SalesColumns columns = SalesColumns.from(CsvLoader.loadSales("sales.csv"));
+        ColumnarSalesAnalysis columnar = new ColumnarSalesAnalysis(columns);
+
+        assertEquals(15, columns.size());
+        assertEquals(3, columns.categories().size(), "Each category must be stored once.");
+        assertEquals(service.calculateTotalRevenue(), columnar.calculateTotalRevenue(), 1e-9);
+        assertEquals(service.calculateAverageSales(), columnar.calculateAverageSales(), 1e-9);
+        assertEquals(service.findHighestValueSale().toString(), columnar.findHighestValueSale().toString());
+        assertEquals(service.filterByRegion("north").toString(), columnar.filterByRegion("north").toString());
+        assertEquals(service.getSalesByCategory().toString(), columnar.getSalesByCategory().toString());
+
+        // A row without a region is stored and simply never matches
+        columns.accept(new SalesRecord(99, LocalDate.of(2024, 1, 1), "Home", "Rug", null, 10.0));
+        assertEquals(service.filterByRegion("north").toString(), columnar.filterByRegion("north").toString());
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 9: Dictionary Encoding
+    // Proof: Repeated text values of one load are the same String instance,
+    // the region filter still ignores case, and missing values are allowed.
+    // ---------------------------------------------------------------
+    @Test
+    void testRepeatedValuesShareOneInstance() {
+        List<SalesRecord> electronics = service.getSalesByCategory().get("Electronics");
+        assertSame(electronics.get(0).getCategory(), electronics.get(1).getCategory());
+
+        assertEquals(service.filterByRegion("North").size(), service.filterByRegion("NORTH").size());
+        assertTrue(service.filterByRegion("Atlantis").isEmpty());
+
+        // A sale without category, product or region can be created and is skipped by filters
+        SalesRecord unknown = new SalesRecord(99, LocalDate.of(2024, 1, 1), null, null, null, 5.0);
+        assertNull(unknown.getRegion());
+        for (boolean indexed : new boolean[] {false, true}) {
+            SalesAnalysisService withUnknown = new SalesAnalysisService(List.of(unknown, electronics.get(0)), indexed);
+            assertEquals(1, withUnknown.filterByRegion(electronics.get(0).getRegion()).size());
+            assertEquals(5.0 + electronics.get(0).getAmount(), withUnknown.calculateTotalRevenue(), 1e-9);
+            assertThrows(IllegalArgumentException.class, () -> withUnknown.aggregateBy(SalesDimension.REGION),
+                    "Grouping by a missing value must say so, not fail with a NullPointerException.");
+        }
+    }
+
+    @Test
+    void testRegionFilterComparesOncePerRegionInstance() {
+        // Two instances of the same region name, each shared by many rows, plus a row without a region
+        String north = "North";
+        String otherNorth = new String("NORTH");
+        String south = "South";
+        List<SalesRecord> data = new ArrayList<>();
+        for (int i = 0; i < 60000; i++) {
+            String region = i % 3 == 0 ? north : i % 3 == 1 ? otherNorth : south;
+            data.add(new SalesRecord(i, LocalDate.of(2024, 1, 1), "Home", "Rug", region, 1.0));
+        }
+        data.add(new SalesRecord(60000, LocalDate.of(2024, 1, 1), "Home", "Rug", null, 1.0));
+
+        for (ExecutionMode mode : new ExecutionMode[] {ExecutionMode.SEQUENTIAL, ExecutionMode.PARALLEL}) {
+            SalesAnalysisService scanning = new SalesAnalysisService(data, false, mode);
+            RegionFilter filter = scanning.scanRegion("north");
+            assertEquals(40000, filter.matches().size(), mode.toString());
+            assertEquals(data.subList(0, 60000).stream().filter(s -> s.getRegion() != south).toList(),
+                    filter.matches(), "Matches must stay in dataset order.");
+            if (mode == ExecutionMode.SEQUENTIAL) {
+                assertEquals(4L, filter.comparisons(), "One comparison per distinct region instance, not per row.");
+            } else {
+                assertTrue(filter.comparisons() < data.size() / 10, "Every split compares each instance at most once.");
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 10: Secondary Indexes
+    // Proof: The indexed service returns the same rows, in the same order,
+    // as the scanning service.
+    // ---------------------------------------------------------------
+    @Test
+    void testIndexedQueriesMatchScan() {
+        List<SalesRecord> data = new ArrayList<>(CsvLoader.loadSales("sales.csv"));
+        data.add(new SalesRecord(99, LocalDate.of(2024, 1, 1), "Home", "Rug", "north", 10.0));
+        SalesAnalysisService scanning = new SalesAnalysisService(data);
+        SalesAnalysisService indexedService = new SalesAnalysisService(data, true);
+
+        for (String region : new String[] {"North", "SOUTH", "north", "Atlantis"}) {
+            assertEquals(scanning.filterByRegion(region), indexedService.filterByRegion(region), region);
+        }
+        assertEquals(scanning.getSalesByCategory(), indexedService.getSalesByCategory());
+        assertEquals(6, indexedService.filterByRegion("NORTH").size(), "Both spellings of North must match.");
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 11: Cached Aggregates
+    // Proof: Cached results follow appended and replaced records.
+    // ---------------------------------------------------------------
+    @Test
+    void testCachedAggregatesFollowDataChanges() {
+        double total = service.calculateTotalRevenue();
+        assertEquals(total / 15, service.calculateAverageSales(), 1e-9);
+
+        SalesRecord big = new SalesRecord(100, LocalDate.of(2024, 2, 1), "Electronics", "Server", "East", 99_999.0);
+        service.append(List.of(big));
+        assertEquals(total + 99_999.0, service.calculateTotalRevenue(), 1e-9);
+        assertEquals((total + 99_999.0) / 16, service.calculateAverageSales(), 1e-9);
+        assertSame(big, service.findHighestValueSale().get());
+        assertTrue(service.filterByRegion("East").contains(big));
+
+        service.replaceAll(List.of());
+        assertEquals(0.0, service.calculateTotalRevenue());
+        assertEquals(0.0, service.calculateAverageSales());
+        assertFalse(service.findHighestValueSale().isPresent());
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 12: Parallel Execution
+    // Proof: Parallel streams and a dedicated fork-join pool give the same
+    // answers as the sequential service, with totals equal to the cent.
+    // ---------------------------------------------------------------
+    @Test
+    void testParallelModesMatchSequential() {
+        List<SalesRecord> data = new ArrayList<>();
+        for (int id = 0; id < 200_000; id++) {
+            // Cent amounts from 0.01 to 9,999.99, plus a few huge ones to stress the rounding
+            double amount = id % 10_000 == 0 ? 1e9 + id / 100.0 : (id * 7919 % 999_999 + 1) / 100.0;
+            data.add(new SalesRecord(id, LocalDate.of(2024, 1, 1), id % 3 == 0 ? "Home" : "Electronics",
+                    "Item", id % 2 == 0 ? "North" : "South", amount));
+        }
+        SalesAnalysisService sequential = new SalesAnalysisService(data, false, ExecutionMode.SEQUENTIAL);
+
+        for (ExecutionMode mode : new ExecutionMode[] {ExecutionMode.PARALLEL, ExecutionMode.forkJoin(4)}) {
+            SalesAnalysisService parallel = new SalesAnalysisService(data, false, mode);
+            assertEquals(Math.round(sequential.calculateTotalRevenue() * 100),
+                    Math.round(parallel.calculateTotalRevenue() * 100), mode.toString());
+            assertEquals(sequential.calculateAverageSales(), parallel.calculateAverageSales(), 1e-6, mode.toString());
+            assertSame(sequential.findHighestValueSale().get(), parallel.findHighestValueSale().get(), mode.toString());
+            assertEquals(sequential.filterByRegion("north"), parallel.filterByRegion("north"), mode.toString());
+
+            Map<String, List<SalesRecord>> groups = parallel.getSalesByCategory();
+            assertEquals(sequential.getSalesByCategory().keySet(), groups.keySet(), mode.toString());
+            assertEquals(66_667, groups.get("Home").size(), mode.toString());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 13: Date Ranges and Rollups
+    // Proof: Range totals and weekly/monthly rollups (overall and per
+    // region) match the data. 2024-01-01 is a Monday.
+    // ---------------------------------------------------------------
+    @Test
+    void testDateRangeQueriesAndRollups() {
+        LocalDate jan1 = LocalDate.of(2024, 1, 1);
+        assertEquals(140.0, service.calculateRevenueBetween(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 5)), 1e-9);
+        assertEquals(service.calculateTotalRevenue(), service.calculateRevenueBetween(LocalDate.MIN, LocalDate.MAX), 1e-9);
+        assertEquals(0.0, service.calculateRevenueBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+        assertEquals(3, service.filterByDateRange(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 5)).size());
+
+        Map<LocalDate, Double> weekly = service.getRevenueByDate(DateBucket.WEEK, jan1, LocalDate.of(2024, 3, 31));
+        assertEquals(List.of(jan1, LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 15)), new ArrayList<>(weekly.keySet()));
+        assertEquals(1445.5, weekly.get(jan1), 1e-9);
+        assertEquals(2280.0, weekly.get(LocalDate.of(2024, 1, 8)), 1e-9);
+        assertEquals(service.calculateTotalRevenue(),
+                service.getRevenueByDate(DateBucket.MONTH, jan1, jan1.plusMonths(3)).get(jan1), 1e-9);
+
+        Map<String, SortedMap<LocalDate, Double>> byRegion =
+                service.getRevenueByDate(DateBucket.WEEK, SalesDimension.REGION, jan1, LocalDate.of(2024, 1, 31));
+        assertEquals(List.of("East", "North", "South", "West"), new ArrayList<>(byRegion.keySet()));
+        assertEquals(1245.0, byRegion.get("North").get(jan1), 1e-9);
+        assertEquals(60.0, byRegion.get("North").get(LocalDate.of(2024, 1, 15)), 1e-9);
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 14: Top-K and Quantiles
+    // Proof: Bounded heaps return the highest sales overall and per region,
+    // and merged quantile sketches stay close to the exact percentiles.
+    // ---------------------------------------------------------------
+    @Test
+    void testTopSalesAndQuantiles() {
+        List<SalesRecord> top = service.findTopSales(3);
+        assertEquals(3, top.size());
+        assertEquals(1200.0, top.get(0).getAmount());
+        assertEquals(400.0, top.get(2).getAmount());
+        assertEquals(15, service.findTopSales(100).size());
+
+        Map<String, List<SalesRecord>> byRegion = service.findTopSales(2, SalesDimension.REGION);
+        assertEquals(4, byRegion.size());
+        assertEquals("Monitor", byRegion.get("North").get(1).getProduct());
+
+        assertEquals(15.0, service.calculateAmountQuantile(0.0).getAsDouble());
+        assertEquals(1200.0, service.calculateAmountQuantile(1.0).getAsDouble());
+
+        // 100k distinct values in shuffled order, split over two sketches as two threads would
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(7));
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < values.size(); i++) {
+            (i % 2 == 0 ? left : right).add(values.get(i));
+        }
+        QuantileSketch merged = left.merge(right);
+        assertEquals(100_000, merged.count());
+        assertEquals(50_000, merged.quantile(0.5), 1_000);
+        assertEquals(95_000, merged.quantile(0.95), 1_000);
+        assertEquals(99_999.0, merged.quantile(1.0));
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 15: Group-By and Cube
+    // Proof: Multi-dimensional groups carry the right count/sum/min/max,
+    // and the precomputed cube answers rollups with "all" wildcards.
+    // ---------------------------------------------------------------
+    @Test
+    void testGroupByAndCube() {
+        Map<GroupKey, GroupStats> byCategory = service.aggregateBy(SalesDimension.CATEGORY);
+        assertEquals(3, byCategory.size());
+        GroupStats electronics = byCategory.entrySet().stream()
+                .filter(e -> e.getKey().get(SalesDimension.CATEGORY).equals("Electronics"))
+                .findFirst().get().getValue();
+        assertEquals(6, electronics.getCount());
+        assertEquals(3205.5, electronics.getSum(), 1e-9);
+        assertEquals(25.5, electronics.getMin());
+        assertEquals(1200.0, electronics.getMax());
+
+        LocalDate jan1 = LocalDate.of(2024, 1, 1);
+        Map<GroupKey, GroupStats> byMonthAndRegion = service.aggregateBy(DateBucket.MONTH, SalesDimension.REGION);
+        assertEquals(4, byMonthAndRegion.size());
+        for (GroupKey key : byMonthAndRegion.keySet()) {
+            assertEquals(jan1, key.getPeriod());
+        }
+
+        SalesCube cube = service.buildCube(DateBucket.MONTH, SalesDimension.CATEGORY, SalesDimension.REGION);
+        assertEquals(15, cube.total().getCount());
+        assertEquals(service.calculateTotalRevenue(), cube.total().getSum(), 1e-9);
+        assertEquals(3205.5, cube.get("Electronics", null).getSum(), 1e-9);
+        assertEquals(5, cube.get(null, "North").getCount());
+        GroupStats homeNorth = cube.getForPeriod(LocalDate.of(2024, 1, 20), "Home", "North");
+        assertEquals(2, homeNorth.getCount());
+        assertEquals(45.0, homeNorth.getAverage(), 1e-9);
+        assertEquals(0, cube.get("Toys", null).getCount());
+        assertEquals(0, cube.getForPeriod(LocalDate.of(2024, 2, 1), null, null).getCount());
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 16: Binary Snapshot
+    // Proof: A snapshot reloads the same records; a changed CSV or a
+    // damaged snapshot falls back to parsing the CSV.
+    // ---------------------------------------------------------------
+    @Test
+    void testSnapshotRoundTripAndFallback() throws IOException {
+        Path dir = Files.createTempDirectory("snapshot");
+        Path csv = dir.resolve("sales.csv");
+        Path snapshot = dir.resolve("sales.csv.snapshot");
+        try {
+            Files.copy(Path.of("sales.csv"), csv);
+
+            List<SalesRecord> parsed = CsvLoader.loadSalesWithSnapshot(csv.toString());
+            assertTrue(Files.exists(snapshot), "The first load must write the snapshot.");
+            List<SalesRecord> reloaded = SalesSnapshot.readIfFresh(snapshot, csv);
+            assertNotNull(reloaded);
+            assertEquals(parsed.toString(), reloaded.toString());
+            assertEquals(parsed.get(1).getDate(), reloaded.get(1).getDate());
+            assertSame(reloaded.get(0).getCategory(), reloaded.get(1).getCategory(), "Each value is decoded once per load.");
+
+            // Appending a row makes the snapshot stale, so the CSV is parsed again
+            Files.writeString(csv, "\n16,2024-01-16,Home,Lamp,West,35.00\n", StandardOpenOption.APPEND); // sales.csv has no final newline
+            assertNull(SalesSnapshot.readIfFresh(snapshot, csv));
+            assertEquals(16, CsvLoader.loadSalesWithSnapshot(csv.toString()).size());
+            assertEquals(16, SalesSnapshot.readIfFresh(snapshot, csv).size());
+
+            // Flip a bit of the last region code: caught by the checksum, and loading still works
+            byte[] bytes = Files.readAllBytes(snapshot);
+            bytes[bytes.length - 4] ^= 1;
+            Files.write(snapshot, bytes);
+            assertThrows(SalesSnapshot.CorruptSnapshotException.class, () -> SalesSnapshot.readIfFresh(snapshot, csv));
+            assertEquals(16, CsvLoader.loadSalesWithSnapshot(csv.toString()).size());
+
+            // The row count is outside the checksum: a huge one must be rejected, not allocated
+            bytes = Files.readAllBytes(snapshot);
+            ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(12, Integer.MAX_VALUE);
+            Files.write(snapshot, bytes);
+            assertThrows(SalesSnapshot.CorruptSnapshotException.class, () -> SalesSnapshot.readIfFresh(snapshot, csv));
+            assertEquals(16, CsvLoader.loadSalesWithSnapshot(csv.toString()).size());
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(csv);
+            Files.delete(dir);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 17: Tail-Follow Ingestion
+    // Proof: Only complete appended lines are read, cached aggregates and
+    // indexes follow them, and a truncated file is read again from the start.
+    // ---------------------------------------------------------------
+    @Test
+    void testFollowerReadsOnlyAppendedLines() throws IOException {
+        Path file = Files.createTempFile("follow", ".csv");
+        try {
+            Files.writeString(file, "id,date,category,product,region,amount\n"
+                    + "1,2024-01-01,Home,Lamp,North,10.00\n"
+                    + "2,2024-01-02,Home,Rug,South,20.00\n"
+                    + "3,2024-01-03,Elec");
+            SalesAnalysisService live = new SalesAnalysisService(new ArrayList<>(), true);
+            SalesFileFollower follower = new SalesFileFollower(file, live);
+
+            assertEquals(2, follower.poll(), "The unfinished third line must wait.");
+            assertEquals(0, follower.poll());
+            assertEquals(30.0, live.calculateTotalRevenue(), 1e-9);
+            assertEquals(1, live.filterByRegion("north").size());
+            assertEquals(30.0, live.calculateRevenueBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)), 1e-9);
+            LocalDate jan1 = LocalDate.of(2024, 1, 1);
+            assertEquals(10.0, live.getRevenueByDate(DateBucket.MONTH, SalesDimension.REGION, jan1, jan1.plusMonths(1))
+                    .get("North").get(jan1), 1e-9);
+
+            Files.writeString(file, "tronics,Radio,North,30.00\n4,2024-01-04,Home,Mug,East,5.00\n",
+                    StandardOpenOption.APPEND);
+            assertEquals(2, follower.poll());
+            assertEquals(65.0, live.calculateTotalRevenue(), 1e-9);
+            assertEquals(2, live.filterByRegion("NORTH").size(), "The index must include appended rows.");
+            assertEquals(65.0, live.calculateRevenueBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)), 1e-9);
+            assertEquals(40.0, live.getRevenueByDate(DateBucket.MONTH, SalesDimension.REGION, jan1, jan1.plusMonths(1))
+                    .get("North").get(jan1), 1e-9);
+            assertEquals(Files.size(file), follower.getOffset());
+
+            Files.writeString(file, "id,date,category,product,region,amount\n5,2024-02-01,Home,Vase,West,7.50\n");
+            assertEquals(1, follower.poll());
+            assertEquals(7.5, live.calculateTotalRevenue(), 1e-9);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testQueriesDuringAppendsSeeWholeBatches() throws InterruptedException {
+        SalesAnalysisService live = new SalesAnalysisService(new ArrayList<>(), true);
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        live.append(List.of(new SalesRecord(0, day, "Home", "Lamp", "North", 1.0))); // Builds nothing yet
+        assertEquals(1, live.filterByRegion("North").size());
+        assertEquals(1.0, live.calculateRevenueBetween(day, day.plusYears(1)), 0.0);
+
+        Thread appender = new Thread(() -> {
+            for (int batch = 0; batch < 2000; batch++) {
+                List<SalesRecord> records = new ArrayList<>();
+                for (int i = 1; i <= 10; i++) {
+                    records.add(new SalesRecord(batch * 10 + i, day.plusDays(batch / 10), "Home", "Lamp", "North", 1.0));
+                }
+                live.append(records);
+            }
+        });
+        appender.start();
+        while (appender.isAlive()) {
+            // Every query sees whole batches of 10 on top of the first record, never a half-grown index
+            assertEquals(1, live.filterByRegion("North").size() % 10);
+            assertEquals(1.0, live.calculateRevenueBetween(day, day.plusYears(1)) % 10, 0.0);
+        }
+        appender.join();
+        assertEquals(20001, live.filterByRegion("North").size());
+        assertEquals(20001.0, live.calculateRevenueBetween(day, day.plusYears(1)), 0.0);
+    }
+
+    // ---------------------------------------------------------------
+    // OBJECTIVE 18: Pipelined Loading
+    // Proof: Reader, parser and aggregation threads feed the service the
+    // same records and errors, in file order, as a single-threaded load.
+    // ---------------------------------------------------------------
+    @Test
+    void testPipelinedLoadMatchesSequentialLoad() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("pipeline", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder("id,date,category,product,region,amount\n");
+            for (int i = 1; i <= 3000; i++) {
+                csv.append(i % 499 == 0 ? "broken row" : i + ",2024-01-01,Home,Item" + i + ",North," + i + ".25")
+                        .append('\n');
+            }
+            csv.append("3001,2024-01-01,Home,").append("X".repeat(300)).append(",North,1.00"); // Longer than a block, no final newline
+            Files.writeString(file, csv);
+
+            List<Long> sequentialErrors = new ArrayList<>();
+            List<Long> pipelinedErrors = new ArrayList<>();
+            List<SalesRecord> sequential = CsvLoader.loadSales(file.toString(), (line, text, reason) -> sequentialErrors.add(line));
+            SalesAnalysisService loaded = new SalesAnalysisService(new ArrayList<>(), true);
+            // 128-byte blocks split the file into hundreds of batches for 3 parsers to race on
+            long records = PipelinedCsvLoader.load(file, loaded, 3, (line, text, reason) -> pipelinedErrors.add(line), 128);
+
+            assertEquals(sequential.size(), records);
+            assertEquals(List.of(500L, 999L, 1498L, 1997L, 2496L, 2995L), pipelinedErrors);
+            assertEquals(sequentialErrors, pipelinedErrors);
+            LocalDate day = LocalDate.of(2024, 1, 1);
+            assertEquals(sequential.toString(), loaded.filterByDateRange(day, day).toString(),
+                    "Pipelined load lost or reordered records.");
+            assertEquals(new SalesAnalysisService(sequential).calculateTotalRevenue(), loaded.calculateTotalRevenue(), 1e-6);
+            assertEquals(sequential.size(), loaded.filterByRegion("north").size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testPipelinedLoadReportsFailedParser() throws IOException {
+        Path file = Files.createTempFile("pipeline", ".csv");
+        try {
+            StringBuilder csv = new StringBuilder("id,date,category,product,region,amount\nbroken row\n");
+            for (int i = 1; i <= 2000; i++) {
+                csv.append(i).append(",2024-01-01,Home,Lamp,North,1.00\n");
+            }
+            Files.writeString(file, csv);
+
+            // The only parser dies on the first block, while the reader still has many blocks to hand over
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                    PipelinedCsvLoader.load(file, new SalesAnalysisService(new ArrayList<>()), 1,
+                            SalesCsvParser.PRINT_TO_STDERR, 64, ignored -> new SalesCsvParser((line, text, reason) -> {
+                                throw new IllegalArgumentException("parser failed at line " + line);
+                            })),
+                    "A failed parser must fail the load instead of hanging it.");
+            assertEquals("parser failed at line 2", e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
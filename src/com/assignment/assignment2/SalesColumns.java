@@ -0,0 +1,130 @@
+package com.assignment.assignment2;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Column-oriented storage of a sales dataset: one primitive array per field.
+ * <p>
+ * A {@link SalesRecord} costs an object header, a {@link LocalDate} and three
+ * String references per row, scattered over the heap. Here a row is just an index
+ * into parallel arrays:
+ * <ul>
+ * <li>{@code int[] ids}, {@code double[] amounts}</li>
+ * <li>{@code int[] dates} as epoch days</li>
+ * <li>{@code int[]} codes for category, product and region, decoded through a
+ *     {@link ColumnDictionary} per column</li>
+ * </ul>
+ * That is 28 bytes per row, and a scan over one column (e.g. summing the amounts)
+ * reads contiguous memory. Rows are appended like into an {@code ArrayList}; use it
+ * as the sink of {@link CsvLoader#streamSales} to load a file without creating a list.
+ * Not thread-safe while rows are being added.
+ */
+public class SalesColumns implements Consumer<SalesRecord> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size = 0;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] dates = new int[INITIAL_CAPACITY];
+    private double[] amounts = new double[INITIAL_CAPACITY];
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private int[] productCodes = new int[INITIAL_CAPACITY];
+    private int[] regionCodes = new int[INITIAL_CAPACITY];
+
+    private final ColumnDictionary categories = new ColumnDictionary();
+    private final ColumnDictionary products = new ColumnDictionary();
+    private final ColumnDictionary regions = new ColumnDictionary();
+
+    /**
+     * Converts a list of records into columns.
+     *
+     * @param records The records, in the order they should be stored.
+     * @return The columnar copy.
+     */
+    public static SalesColumns from(List<SalesRecord> records) {
+        SalesColumns columns = new SalesColumns();
+        records.forEach(columns);
+        return columns;
+    }
+
+    /**
+     * Appends a record as a new row.
+     */
+    @Override
+    public void accept(SalesRecord sale) {
+        add(sale.getId(), sale.getDate(), sale.getCategory(), sale.getProduct(), sale.getRegion(), sale.getAmount());
+    }
+
+    /**
+     * Appends a row.
+     */
+    public void add(int id, LocalDate date, String category, String product, String region, double amount) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        dates[size] = (int) date.toEpochDay();
+        amounts[size] = amount;
+        categoryCodes[size] = categories.encode(category);
+        productCodes[size] = products.encode(product);
+        regionCodes[size] = regions.encode(region);
+        size++;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rebuilds the record stored in a row.
+     *
+     * @param row A row index in [0, size()).
+     * @return A new SalesRecord with the row's values.
+     */
+    public SalesRecord get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return new SalesRecord(ids[row], LocalDate.ofEpochDay(dates[row]),
+                categories.decode(categoryCodes[row]), products.decode(productCodes[row]),
+                regions.decode(regionCodes[row]), amounts[row]);
+    }
+
+    // Raw column access for the columnar analysis. The arrays may be longer than size().
+    int[] ids() { return ids; }
+    int[] epochDays() { return dates; }
+    double[] amounts() { return amounts; }
+    int[] categoryCodes() { return categoryCodes; }
+    int[] productCodes() { return productCodes; }
+    int[] regionCodes() { return regionCodes; }
+
+    public ColumnDictionary categories() { return categories; }
+    public ColumnDictionary products() { return products; }
+    public ColumnDictionary regions() { return regions; }
+
+    /**
+     * Shrinks every column to exactly size() rows, releasing the spare capacity.
+     */
+    public void trimToSize() {
+        resize(size);
+    }
+
+    private void grow() {
+        resize(Math.max(INITIAL_CAPACITY, ids.length + (ids.length >> 1)));
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        productCodes = Arrays.copyOf(productCodes, capacity);
+        regionCodes = Arrays.copyOf(regionCodes, capacity);
+    }
+}
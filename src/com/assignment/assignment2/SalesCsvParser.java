@@ -0,0 +1,520 @@
+package com.assignment.assignment2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Byte-level parser for the sales CSV format ({@code id,date,category,product,region,amount}).
+ * <p>
+ * The file is memory-mapped in windows and tokenized in place: fields are
+ * located as byte offsets, and the id, amount and ISO date are parsed directly
+ * from the bytes. No line Strings, no regex split and no {@code trim()} copies
+ * are created. The three text columns are looked up straight from the bytes in a
+ * small per-parser dictionary, so a String is only decoded the first time a parser
+ * sees a value, and all the records it produces share one instance per value.
+ * The dictionaries belong to the parser (one per load) and are capped, so they
+ * never outlive the load or grow with a high-cardinality column.
+ * <ul>
+ * <li>Fields may be wrapped in double quotes; {@code ""} inside quotes is an escaped quote.
+ *     Quoted fields may contain commas but not line breaks.</li>
+ * <li>Whitespace around unquoted fields (anything {@code String.trim()} removes, e.g. tabs) is ignored,
+ *     as are blank lines and {@code \r\n} endings.</li>
+ * <li>A malformed row is reported to the {@link ErrorListener} with its line number
+ *     and skipped; parsing continues with the next line.</li>
+ * </ul>
+ * Text is decoded as UTF-8. A parser instance is not thread-safe (it reuses a scratch buffer and its caches).
+ */
+public final class SalesCsvParser {
+
+    /**
+     * Receives the rows that could not be parsed.
+     */
+    @FunctionalInterface
+    public interface ErrorListener {
+        /**
+         * @param lineNumber The 1-based line number in the file.
+         * @param line       The raw text of the line.
+         * @param reason     Why the row was rejected.
+         */
+        void onMalformedRow(long lineNumber, String line, String reason);
+    }
+
+    /** Default listener: prints one line per malformed row to System.err. */
+    public static final ErrorListener PRINT_TO_STDERR = (lineNumber, line, reason) ->
+            System.err.println("Skipping malformed row at line " + lineNumber + " (" + reason + "): " + line);
+
+    private static final int FIELDS = 6;
+
+    // Size of one mapped window; lines are never split across windows
+    private static final int DEFAULT_WINDOW_BYTES = 64 << 20;
+
+    // Largest mantissa (2^53) and power of ten (10^22) for which mantissa / 10^k is exact and correctly rounded
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ErrorListener errors;
+    private final int windowBytes;
+
+    // Field boundaries of the current line: [start, end) offsets into the window
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private final boolean[] fieldEscaped = new boolean[FIELDS];
+
+    // Reused for the bytes of quoted text fields while their "" escapes are removed
+    private byte[] scratch = new byte[64];
+
+    // Byte-level dictionaries of the values this parser has seen, one per text column
+    private final ValueCache categories = new ValueCache();
+    private final ValueCache products = new ValueCache();
+    private final ValueCache regions = new ValueCache();
+
+    // Number of lines (including blank and malformed ones) seen by the last parseRange call
+    private long lines;
+
+    /**
+     * Creates a parser that prints malformed rows to System.err.
+     */
+    public SalesCsvParser() {
+        this(PRINT_TO_STDERR);
+    }
+
+    /**
+     * @param errors Receives every malformed row.
+     */
+    public SalesCsvParser(ErrorListener errors) {
+        this(errors, DEFAULT_WINDOW_BYTES);
+    }
+
+    // Visible for tests: small windows exercise the window boundary handling
+    SalesCsvParser(ErrorListener errors, int windowBytes) {
+        this.errors = errors;
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Parses the whole file, skipping the header line.
+     *
+     * @param file The CSV file.
+     * @param sink Receives every valid record, in file order.
+     * @return The number of records passed to the sink.
+     * @throws IOException If the file cannot be read.
+     */
+    public long parse(Path file, Consumer<? super SalesRecord> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parseRange(channel, 0, channel.size(), 1, sink);
+        }
+    }
+
+    /**
+     * Parses the lines in {@code [from, to)}. The range must start at the beginning of a line
+     * and end after a line break (or at the end of the file). If the range starts at offset 0,
+     * its first line is the header and is skipped.
+     *
+     * @param firstLineNumber The line number reported for the line starting at {@code from}.
+     * @return The number of records passed to the sink.
+     */
+    long parseRange(FileChannel channel, long from, long to, long firstLineNumber,
+                    Consumer<? super SalesRecord> sink) throws IOException {
+        long records = 0;
+        long lineNumber = firstLineNumber;
+        long position = from;
+        int window = windowBytes;
+        while (position < to) {
+            int length = (int) Math.min(window, to - position);
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean last = position + length == to;
+
+            // Only parse up to the last complete line; the rest is re-mapped with the next window
+            int limit = last ? length : lastLineBreak(bytes, length) + 1;
+            if (limit == 0) {
+                window *= 2; // One line longer than the window: retry with a bigger one
+                continue;
+            }
+
+            boolean header = from == 0 && position == from;
+            records += parseBlock(bytes, limit, lineNumber, header, sink);
+            lineNumber += lines;
+            position += limit;
+            window = windowBytes;
+        }
+        lines = lineNumber - firstLineNumber;
+        return records;
+    }
+
+    /**
+     * Parses the lines in {@code bytes[0, limit)}, which must end with a line break or be the
+     * end of the input. Lets callers that already hold the bytes in memory (e.g. a pipeline
+     * stage) reuse the parser without a file.
+     *
+     * @param firstLineNumber The line number reported for the line starting at index 0.
+     * @param skipFirstLine   True if the block starts with the header line.
+     * @return The number of records passed to the sink.
+     */
+    long parseBlock(ByteBuffer bytes, int limit, long firstLineNumber, boolean skipFirstLine,
+                    Consumer<? super SalesRecord> sink) {
+        long records = 0;
+        long lineNumber = firstLineNumber;
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            boolean header = skipFirstLine && lineNumber == firstLineNumber;
+            if (!header && parseLine(bytes, lineStart, lineEnd, lineNumber, sink)) {
+                records++;
+            }
+            lineNumber++;
+            lineStart = lineEnd + 1;
+        }
+        lines = lineNumber - firstLineNumber;
+        return records;
+    }
+
+    /**
+     * @return The number of lines (blank and malformed ones included) read by the last
+     *         {@link #parseRange} or {@link #parseBlock} call.
+     */
+    long lineCount() {
+        return lines;
+    }
+
+    // Returns true if the line produced a record
+    private boolean parseLine(ByteBuffer bytes, int start, int end, long lineNumber,
+                              Consumer<? super SalesRecord> sink) {
+        if (end > start && bytes.get(end - 1) == '\r') {
+            end--;
+        }
+        if (isBlank(bytes, start, end)) {
+            return false;
+        }
+        SalesRecord record;
+        try {
+            tokenize(bytes, start, end);
+            record = new SalesRecord(
+                    parseInt(bytes, 0),         // ID
+                    parseDate(bytes, 1),        // Date (YYYY-MM-DD)
+                    parseText(bytes, 2, categories), // Category
+                    parseText(bytes, 3, products),   // Product
+                    parseText(bytes, 4, regions),    // Region
+                    parseDouble(bytes, 5)       // Amount
+            );
+        } catch (MalformedRowException e) {
+            errors.onMalformedRow(lineNumber, decode(bytes, start, end), e.getMessage());
+            return false;
+        }
+        sink.accept(record);
+        return true;
+    }
+
+    // Records the boundaries of all fields of one line, honouring quotes
+    private void tokenize(ByteBuffer bytes, int start, int end) throws MalformedRowException {
+        int count = 0;
+        int i = start;
+        while (true) {
+            if (count == FIELDS) {
+                throw new MalformedRowException("more than " + FIELDS + " fields");
+            }
+            i = skipSpaces(bytes, i, end);
+            if (i < end && bytes.get(i) == '"') {
+                int s = ++i;
+                boolean escaped = false;
+                while (true) {
+                    if (i >= end) {
+                        throw new MalformedRowException("unterminated quote in field " + (count + 1));
+                    }
+                    if (bytes.get(i) == '"') {
+                        if (i + 1 < end && bytes.get(i + 1) == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                fieldStart[count] = s;
+                fieldEnd[count] = i;
+                fieldEscaped[count] = escaped;
+                i = skipSpaces(bytes, i + 1, end);
+                if (i < end && bytes.get(i) != ',') {
+                    throw new MalformedRowException("unexpected character after quoted field " + (count + 1));
+                }
+            } else {
+                int s = i;
+                while (i < end && bytes.get(i) != ',') {
+                    i++;
+                }
+                int e = i;
+                while (e > s && isSpace(bytes.get(e - 1))) {
+                    e--;
+                }
+                fieldStart[count] = s;
+                fieldEnd[count] = e;
+                fieldEscaped[count] = false;
+            }
+            count++;
+            if (i >= end) {
+                break;
+            }
+            i++; // Skip the comma
+        }
+        if (count < FIELDS) {
+            throw new MalformedRowException("expected " + FIELDS + " fields, found " + count);
+        }
+    }
+
+    private int parseInt(ByteBuffer bytes, int field) throws MalformedRowException {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = i < end && bytes.get(i) == '-';
+        if (negative || (i < end && bytes.get(i) == '+')) {
+            i++;
+        }
+        if (i == end) {
+            throw new MalformedRowException("empty number in field " + (field + 1));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new MalformedRowException("invalid integer in field " + (field + 1));
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new MalformedRowException("integer out of range in field " + (field + 1));
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new MalformedRowException("integer out of range in field " + (field + 1));
+        }
+        return (int) value;
+    }
+
+    // Fast path for plain decimals ([-+]digits[.digits]); anything else goes through Double.parseDouble
+    private double parseDouble(ByteBuffer bytes, int field) throws MalformedRowException {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = i < end && bytes.get(i) == '-';
+        if (negative || (i < end && bytes.get(i) == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1; // -1 until the decimal point is seen
+        for (; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    return parseDoubleSlow(bytes, field);
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return parseDoubleSlow(bytes, field); // Exponent, NaN, ... or garbage
+            }
+        }
+        if (digits == 0) {
+            throw new MalformedRowException("invalid number in field " + (field + 1));
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlow(bytes, field); // Only reachable with leading zeros, e.g. 0.000...01
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private double parseDoubleSlow(ByteBuffer bytes, int field) throws MalformedRowException {
+        try {
+            return Double.parseDouble(decode(bytes, fieldStart[field], fieldEnd[field]));
+        } catch (NumberFormatException e) {
+            throw new MalformedRowException("invalid number in field " + (field + 1));
+        }
+    }
+
+    // Strict ISO-8601 calendar date: YYYY-MM-DD
+    private LocalDate parseDate(ByteBuffer bytes, int field) throws MalformedRowException {
+        int s = fieldStart[field];
+        if (fieldEnd[field] - s != 10 || bytes.get(s + 4) != '-' || bytes.get(s + 7) != '-') {
+            throw new MalformedRowException("invalid date in field " + (field + 1));
+        }
+        int year = digits(bytes, s, 4, field);
+        int month = digits(bytes, s + 5, 2, field);
+        int day = digits(bytes, s + 8, 2, field);
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new MalformedRowException("invalid date in field " + (field + 1));
+        }
+    }
+
+    private static int digits(ByteBuffer bytes, int from, int count, int field) throws MalformedRowException {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = bytes.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new MalformedRowException("invalid date in field " + (field + 1));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Shared String of a text field; only fields with "" escapes are copied before the lookup
+    private String parseText(ByteBuffer bytes, int field, ValueCache cache) {
+        int s = fieldStart[field];
+        int e = fieldEnd[field];
+        if (!fieldEscaped[field]) {
+            return cache.value(bytes, s, e);
+        }
+        if (scratch.length < e - s) {
+            scratch = new byte[Math.max(e - s, scratch.length * 2)];
+        }
+        int length = 0;
+        for (int i = s; i < e; i++) {
+            byte b = bytes.get(i);
+            scratch[length++] = b;
+            if (b == '"') {
+                i++; // Skip the second quote of the pair
+            }
+        }
+        return cache.value(ByteBuffer.wrap(scratch), 0, length);
+    }
+
+    // Only used for error reports and the slow number path
+    private static String decode(ByteBuffer bytes, int start, int end) {
+        byte[] text = new byte[end - start];
+        bytes.get(start, text);
+        return new String(text, StandardCharsets.UTF_8);
+    }
+
+    private static int skipSpaces(ByteBuffer bytes, int i, int end) {
+        while (i < end && isSpace(bytes.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // Same set as String.trim(): control characters and the space (UTF-8 multi-byte sequences are negative)
+    private static boolean isSpace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static boolean isBlank(ByteBuffer bytes, int start, int end) {
+        return skipSpaces(bytes, start, end) == end;
+    }
+
+    // Offset of the last '\n' in the first length bytes, or -1
+    private static int lastLineBreak(ByteBuffer bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Open-addressing map from the raw bytes of a value to its String.
+     * A hit compares the bytes in place, so no String is created for values this
+     * parser has seen before. Stops caching new values after MAX_ENTRIES, so a
+     * high-cardinality column falls back to decoding every value.
+     */
+    private static final class ValueCache {
+        private static final int MAX_ENTRIES = 4096;
+
+        private byte[][] keys = new byte[64][];
+        private String[] values = new String[64];
+        private int count = 0;
+
+        String value(ByteBuffer bytes, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + bytes.get(i);
+            }
+            int mask = keys.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            for (byte[] key; (key = keys[slot]) != null; slot = (slot + 1) & mask) {
+                if (matches(key, bytes, start, end)) {
+                    return values[slot];
+                }
+            }
+
+            byte[] key = new byte[end - start];
+            bytes.get(start, key);
+            String value = new String(key, StandardCharsets.UTF_8);
+            if (count < MAX_ENTRIES) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++count * 2 > keys.length) {
+                    rehash(); // Keep the load factor at or below 1/2
+                }
+            }
+            return value;
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer bytes, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != bytes.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void rehash() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                byte[] key = oldKeys[i];
+                if (key != null) {
+                    int hash = 0;
+                    for (byte b : key) {
+                        hash = 31 * hash + b;
+                    }
+                    int slot = (hash ^ (hash >>> 16)) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = key;
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Thrown inside the parser for a bad row; always caught and turned into an error report.
+     * No stack trace is captured, so rejecting a row stays cheap.
+     */
+    private static final class MalformedRowException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        MalformedRowException(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+}
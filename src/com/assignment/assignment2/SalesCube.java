@@ -0,0 +1,75 @@
+package com.assignment.assignment2;
+
+import java.time.LocalDate;
+
+/**
+ * Precomputed count/sum/avg/min/max for every combination of a few dimensions
+ * (and optionally a date bucket), including every rollup where some of them are
+ * "all values".
+ * <p>
+ * Built once by {@link SalesAnalysisService#buildCube}; a dashboard lookup such as
+ * "Electronics in the North, any month" is then a single hash probe. The cube has at
+ * most {@code (values + 1)} cells per axis multiplied together, so keep it to
+ * low-cardinality dimensions. It is a snapshot: later changes to the data are not seen.
+ * Immutable and safe to share between threads.
+ */
+public final class SalesCube {
+
+    private final GroupLayout layout;
+    private final GroupTable cells;
+
+    private SalesCube(GroupLayout layout, GroupTable cells) {
+        this.layout = layout;
+        this.cells = cells;
+    }
+
+    /**
+     * Adds every rollup of the base groups: for each subset of the axes, the groups
+     * with the other axes replaced by ALL.
+     *
+     * @param layout The layout the base groups were packed with.
+     * @param base   Groups at full detail; it becomes the cube's storage.
+     */
+    static SalesCube rollUp(GroupLayout layout, GroupTable base) {
+        int baseGroups = base.size();
+        int all = (1 << layout.axes()) - 1;
+        for (int row = 0; row < baseGroups; row++) {
+            long key = base.keyAt(row);
+            for (int keep = 0; keep < all; keep++) {
+                base.add(base, row, layout.rollUp(key, keep));
+            }
+        }
+        return new SalesCube(layout, base);
+    }
+
+    /**
+     * @param values One value per cube dimension, in the order they were given; null for "all".
+     * @return The stats of the cell, or {@link GroupStats#EMPTY} if it has no sales.
+     */
+    public GroupStats get(String... values) {
+        return cells.get(layout.encode(values, null));
+    }
+
+    /**
+     * @param period Any day of the date bucket; null for "all dates".
+     * @param values One value per cube dimension, in the order they were given; null for "all".
+     * @return The stats of the cell, or {@link GroupStats#EMPTY} if it has no sales.
+     */
+    public GroupStats getForPeriod(LocalDate period, String... values) {
+        return cells.get(layout.encode(values, period));
+    }
+
+    /**
+     * @return The stats of all sales.
+     */
+    public GroupStats total() {
+        return cells.get(layout.encode(new String[layout.dimensionCount()], null));
+    }
+
+    /**
+     * @return The number of cells, rollups included.
+     */
+    public int size() {
+        return cells.size();
+    }
+}
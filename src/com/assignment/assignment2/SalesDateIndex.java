@@ -0,0 +1,154 @@
+package com.assignment.assignment2;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sales sorted by date, with a prefix sum of the amounts.
+ * <p>
+ * {@code prefix[i]} is the total of the first {@code i} sales, so the revenue of any
+ * date range is two binary searches and one subtraction: O(log n) whatever the
+ * size of the range. A rollup costs O(log n) per non-empty bucket. Per-dimension
+ * rollups use one smaller index per value of the dimension, split off on first use
+ * (every sale must then have a value in that dimension).
+ * <p>
+ * Sales dated on or after the latest one can be appended in amortized O(1) each
+ * (the usual case for a growing sales log). Queries may share the index between
+ * threads, but must not run while it is being appended to; {@link SalesAnalysisService}
+ * ensures this with its read-write lock.
+ */
+final class SalesDateIndex {
+
+    private SalesRecord[] records = new SalesRecord[16];
+    private int[] days = new int[16];
+    private double[] prefix = new double[17];
+    private int size = 0;
+    private final CompensatedSum running = new CompensatedSum(); // Keeps late prefixes accurate on large datasets
+
+    private final Map<SalesDimension, Map<String, SalesDateIndex>> byDimension = new ConcurrentHashMap<>();
+
+    SalesDateIndex(Collection<SalesRecord> sales) {
+        // Stable sort: sales of the same day stay in dataset order
+        sales.stream().sorted(Comparator.comparing(SalesRecord::getDate)).forEachOrdered(this::add);
+    }
+
+    private SalesDateIndex() {
+    }
+
+    /**
+     * Appends sales, if none of them is dated before the latest sale already indexed
+     * and they are in date order among themselves.
+     *
+     * @return False, without changing the index, if the sales are out of date order.
+     */
+    boolean appendAll(Collection<SalesRecord> sales) {
+        long last = size == 0 ? Long.MIN_VALUE : days[size - 1];
+        boolean splittable = true;
+        for (SalesRecord sale : sales) {
+            long day = sale.getDate().toEpochDay();
+            if (day < last) {
+                return false;
+            }
+            last = day;
+            for (SalesDimension dimension : byDimension.keySet()) {
+                splittable &= dimension.of(sale) != null;
+            }
+        }
+        if (!splittable) {
+            byDimension.clear(); // Split again (and report the missing value) on the next rollup
+        }
+        for (SalesRecord sale : sales) {
+            add(sale);
+            byDimension.forEach((dimension, parts) -> addToPart(parts, dimension, sale));
+        }
+        return true;
+    }
+
+    private void add(SalesRecord sale) {
+        if (size == records.length) {
+            int capacity = size * 2;
+            records = Arrays.copyOf(records, capacity);
+            days = Arrays.copyOf(days, capacity);
+            prefix = Arrays.copyOf(prefix, capacity + 1);
+        }
+        records[size] = sale;
+        days[size] = (int) sale.getDate().toEpochDay();
+        running.add(sale.getAmount());
+        prefix[++size] = running.value();
+    }
+
+    private static void addToPart(Map<String, SalesDateIndex> parts, SalesDimension dimension, SalesRecord sale) {
+        parts.computeIfAbsent(dimension.groupValue(sale), value -> new SalesDateIndex()).add(sale);
+    }
+
+    double revenueBetween(LocalDate from, LocalDate to) {
+        int lo = firstOnOrAfter(from.toEpochDay());
+        int hi = firstOnOrAfter(to.toEpochDay() + 1);
+        return lo < hi ? prefix[hi] - prefix[lo] : 0.0;
+    }
+
+    List<SalesRecord> salesBetween(LocalDate from, LocalDate to) {
+        int lo = firstOnOrAfter(from.toEpochDay());
+        int hi = firstOnOrAfter(to.toEpochDay() + 1);
+        return lo < hi ? new ArrayList<>(Arrays.asList(records).subList(lo, hi)) : new ArrayList<>(); // hi <= size
+    }
+
+    SortedMap<LocalDate, Double> revenueBy(DateBucket bucket, LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Double> result = new TreeMap<>();
+        int lo = firstOnOrAfter(from.toEpochDay());
+        int hi = firstOnOrAfter(to.toEpochDay() + 1);
+        while (lo < hi) {
+            LocalDate start = bucket.start(records[lo].getDate());
+            int end = Math.min(hi, firstOnOrAfter(bucket.next(start).toEpochDay()));
+            result.put(start, prefix[end] - prefix[lo]);
+            lo = end; // Skips straight to the next bucket that has sales
+        }
+        return result;
+    }
+
+    Map<String, SortedMap<LocalDate, Double>> revenueBy(DateBucket bucket, SalesDimension dimension,
+                                                        LocalDate from, LocalDate to) {
+        Map<String, SalesDateIndex> parts = byDimension.computeIfAbsent(dimension, this::split);
+        Map<String, SortedMap<LocalDate, Double>> result = new TreeMap<>();
+        parts.forEach((value, part) -> {
+            SortedMap<LocalDate, Double> rollup = part.revenueBy(bucket, from, to);
+            if (!rollup.isEmpty()) {
+                result.put(value, rollup);
+            }
+        });
+        return result;
+    }
+
+    // One index per value of the dimension; the records are already in date order
+    private Map<String, SalesDateIndex> split(SalesDimension dimension) {
+        Map<String, SalesDateIndex> parts = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            addToPart(parts, dimension, records[row]);
+        }
+        return parts;
+    }
+
+    // Lower bound: the first position whose day is >= day, or size if there is none
+    private int firstOnOrAfter(long day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (days[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,48 @@
+package com.assignment.assignment2;
+
+/**
+ * A text column of {@link SalesRecord} that sales can be grouped by.
+ */
+public enum SalesDimension {
+
+    CATEGORY {
+        @Override
+        public String of(SalesRecord sale) {
+            return sale.getCategory();
+        }
+    },
+
+    PRODUCT {
+        @Override
+        public String of(SalesRecord sale) {
+            return sale.getProduct();
+        }
+    },
+
+    REGION {
+        @Override
+        public String of(SalesRecord sale) {
+            return sale.getRegion();
+        }
+    };
+
+    /**
+     * @param sale A sale.
+     * @return The sale's value in this column (null if the sale has none).
+     */
+    public abstract String of(SalesRecord sale);
+
+    /**
+     * The value a sale is grouped under. A sale without a value in this column cannot be grouped.
+     *
+     * @throws IllegalArgumentException If the sale has no value in this column.
+     */
+    String groupValue(SalesRecord sale) {
+        String value = of(sale);
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot group by " + name().toLowerCase()
+                    + ": sale " + sale.getId() + " has no " + name().toLowerCase());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,118 @@
+package com.assignment.assignment2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Follows a sales CSV that is being appended to (like {@code tail -f}) and feeds the
+ * new rows into a {@link SalesAnalysisService}.
+ * <p>
+ * The follower remembers the byte offset up to which it has read. Every {@link #poll}
+ * parses only the bytes added since then, up to the last line break; a trailing line
+ * without its newline is still being written and is read by a later poll. The
+ * records go to {@link SalesAnalysisService#append}, which updates the cached
+ * aggregates and indexes incrementally, so the cost of a poll depends on what was
+ * appended, not on the size of the file.
+ * <p>
+ * If the file shrinks or is replaced by another file (log rotation), the service is
+ * cleared and the new file is read from the start. The service should therefore be
+ * fed by this follower only, starting empty: the first poll reads the whole file.
+ */
+public class SalesFileFollower {
+
+    private static final int SCAN_BYTES = 8 << 10;
+
+    private final Path file;
+    private final SalesAnalysisService service;
+    private final SalesCsvParser parser;
+
+    // Always at the start of a line; everything before it has been parsed
+    private long offset = 0;
+    private long nextLineNumber = 1;
+    private Object fileKey;
+
+    public SalesFileFollower(Path file, SalesAnalysisService service) {
+        this(file, service, SalesCsvParser.PRINT_TO_STDERR);
+    }
+
+    /**
+     * @param file    The CSV file to follow.
+     * @param service Receives the records; it should start empty.
+     * @param errors  Receives every malformed row, with its line number in the file.
+     */
+    public SalesFileFollower(Path file, SalesAnalysisService service, SalesCsvParser.ErrorListener errors) {
+        this.file = file;
+        this.service = service;
+        this.parser = new SalesCsvParser(errors);
+    }
+
+    /**
+     * Reads the complete lines appended since the last poll and appends their records to the service.
+     *
+     * @return The number of new records (0 if nothing complete was appended).
+     * @throws IOException If the file cannot be read.
+     */
+    public synchronized int poll() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Object key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+            long size = channel.size();
+            if (size < offset || (fileKey != null && !Objects.equals(fileKey, key))) {
+                // Truncated or rotated: what was read no longer describes this file
+                offset = 0;
+                nextLineNumber = 1;
+                service.replaceAll(List.of());
+            }
+            fileKey = key;
+
+            long end = afterLastLineBreak(channel, offset, size);
+            if (end == offset) {
+                return 0;
+            }
+            List<SalesRecord> added = new ArrayList<>();
+            parser.parseRange(channel, offset, end, nextLineNumber, added::add);
+            nextLineNumber += parser.lineCount();
+            offset = end;
+            if (!added.isEmpty()) {
+                service.append(added);
+            }
+            return added.size();
+        }
+    }
+
+    /**
+     * @return The number of bytes of the file that have been read.
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    // The position just after the last '\n' in [from, to), or from if there is none
+    private static long afterLastLineBreak(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        long end = to;
+        while (end > from) {
+            long start = Math.max(from, end - SCAN_BYTES);
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    return from; // The file shrank while we were reading; try again next poll
+                }
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return from;
+    }
+}
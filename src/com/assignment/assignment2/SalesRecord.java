@@ -8,6 +8,9 @@ import java.time.LocalDate;
  * This class is designed as an <b>Immutable Data Model</b>, which is ideal for
  * <b>Functional Programming</b> paradigms. Once created, the data cannot change,
  * preventing side effects during Stream operations.
+ * <p>
+ * Records parsed by {@link SalesCsvParser} in one load share one String per distinct
+ * category, product and region value.
  */
 public class SalesRecord {
     private final int id;
@@ -22,9 +25,9 @@ public class SalesRecord {
      *
      * @param id       Unique identifier for the sale.
      * @param date     Date of the transaction.
-     * @param category Product category (e.g., Electronics, Home).
-     * @param product  Name of the product.
-     * @param region   Geographic region (North, South, etc.).
+     * @param category Product category (e.g., Electronics, Home); may be null if unknown.
+     * @param product  Name of the product; may be null if unknown.
+     * @param region   Geographic region (North, South, etc.); may be null if unknown.
      * @param amount   Monetary value of the sale.
      */
     public SalesRecord(int id, LocalDate date, String category, String product, String region, double amount) {
@@ -37,6 +40,8 @@ public class SalesRecord {
     }
 
     // Getters necessary for Stream mapping operations
+    public int getId() { return id; }
+    public LocalDate getDate() { return date; }
     public String getCategory() { return category; }
     public String getRegion() { return region; }
     public double getAmount() { return amount; }
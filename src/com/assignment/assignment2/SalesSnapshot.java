@@ -0,0 +1,262 @@
+package com.assignment.assignment2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary, columnar snapshot of a parsed sales dataset, read back through a memory map.
+ * <p>
+ * Layout (little-endian):
+ * <pre>
+ *  0  magic "SALESNAP"        8 bytes
+ *  8  format version          int
+ * 12  row count               int
+ * 16  source CSV size         long
+ * 24  source CSV mtime (ms)   long
+ * 32  body length             long
+ * 40  CRC-32C of the body     int
+ * 44  reserved                int
+ * 48  body: category, product and region dictionaries (int count, then int length + UTF-8
+ *     bytes per value, length -1 for a missing value), zero padding to 8 bytes, then the
+ *     columns double[] amounts, int[] ids, int[] epoch days, int[] category, product and region codes
+ * </pre>
+ * Loading copies whole columns out of the map with bulk gets and builds the records
+ * from dictionary codes, with no text parsing at all; every value is decoded once and
+ * shared by all its records. The size and modification time of the source CSV are
+ * stored, so a snapshot of an older version of the file is recognised as stale. A
+ * snapshot is written to a temporary file and then renamed, so readers never see a
+ * half-written one.
+ */
+final class SalesSnapshot {
+
+    static final int VERSION = 1;
+
+    private static final long MAGIC = ByteBuffer.wrap("SALESNAP".getBytes(StandardCharsets.US_ASCII))
+            .order(ByteOrder.LITTLE_ENDIAN).getLong();
+    private static final int HEADER_BYTES = 48;
+    private static final long ROW_BYTES = 28; // amount (8) + id, epoch day and three codes (4 each)
+
+    private SalesSnapshot() {
+    }
+
+    /**
+     * Thrown when a snapshot file exists but is unreadable: wrong magic, truncated, or a checksum mismatch.
+     */
+    static final class CorruptSnapshotException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorruptSnapshotException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the records, stamped with the source file's current size and modification time.
+     */
+    static void write(List<SalesRecord> sales, Path snapshot, Path source) throws IOException {
+        int rows = sales.size();
+        int[] categories = new int[rows];
+        int[] products = new int[rows];
+        int[] regions = new int[rows];
+        List<byte[]> categoryValues = encode(sales, SalesDimension.CATEGORY, categories);
+        List<byte[]> productValues = encode(sales, SalesDimension.PRODUCT, products);
+        List<byte[]> regionValues = encode(sales, SalesDimension.REGION, regions);
+
+        long dictionaryBytes = dictionaryBytes(categoryValues) + dictionaryBytes(productValues) + dictionaryBytes(regionValues);
+        long columnsStart = align8(HEADER_BYTES + dictionaryBytes);
+        long fileSize = columnsStart + rows * ROW_BYTES;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Dataset too large for a single-map snapshot: " + fileSize + " bytes");
+        }
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+
+            out.position(HEADER_BYTES);
+            writeDictionary(out, categoryValues);
+            writeDictionary(out, productValues);
+            writeDictionary(out, regionValues);
+
+            out.position((int) columnsStart);
+            for (SalesRecord sale : sales) {
+                out.putDouble(sale.getAmount());
+            }
+            for (SalesRecord sale : sales) {
+                out.putInt(sale.getId());
+            }
+            for (SalesRecord sale : sales) {
+                out.putInt((int) sale.getDate().toEpochDay());
+            }
+            out.asIntBuffer().put(categories).put(products).put(regions);
+
+            out.putLong(0, MAGIC);
+            out.putInt(8, VERSION);
+            out.putInt(12, rows);
+            out.putLong(16, Files.size(source));
+            out.putLong(24, Files.getLastModifiedTime(source).toMillis());
+            out.putLong(32, fileSize - HEADER_BYTES);
+            out.putInt(40, checksum(out, fileSize));
+            out.force();
+        }
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads a snapshot if it exists, has the current format version and matches the source file.
+     *
+     * @return The records, or null if there is no usable snapshot (missing, older version, or stale).
+     * @throws CorruptSnapshotException If the file is damaged.
+     * @throws IOException              If the files cannot be read.
+     */
+    static List<SalesRecord> readIfFresh(Path snapshot, Path source) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new CorruptSnapshotException("Bad snapshot size: " + fileSize);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            in.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (in.getLong(0) != MAGIC) {
+                throw new CorruptSnapshotException("Not a sales snapshot: " + snapshot);
+            }
+            if (in.getInt(8) != VERSION
+                    || in.getLong(16) != Files.size(source)
+                    || in.getLong(24) != Files.getLastModifiedTime(source).toMillis()) {
+                return null; // Written by another version, or the CSV has changed since
+            }
+            int rows = in.getInt(12);
+            if (in.getLong(32) != fileSize - HEADER_BYTES || rows < 0) {
+                throw new CorruptSnapshotException("Truncated snapshot: " + snapshot);
+            }
+            if (in.getInt(40) != checksum(in, fileSize)) {
+                throw new CorruptSnapshotException("Checksum mismatch: " + snapshot);
+            }
+            return decode(in, rows, fileSize);
+        }
+    }
+
+    private static List<SalesRecord> decode(MappedByteBuffer in, int rows, long fileSize) throws CorruptSnapshotException {
+        try {
+            in.position(HEADER_BYTES);
+            String[] categoryValues = readDictionary(in);
+            String[] productValues = readDictionary(in);
+            String[] regionValues = readDictionary(in);
+
+            long columnsStart = align8(in.position());
+            // The row count is outside the checksum: it must match the size of the columns before anything is allocated
+            if (columnsStart + rows * ROW_BYTES != fileSize) {
+                throw new CorruptSnapshotException("Row count " + rows + " does not match the snapshot size");
+            }
+            in.position((int) columnsStart);
+            double[] amounts = new double[rows];
+            int[] ids = new int[rows];
+            int[] days = new int[rows];
+            int[] categories = new int[rows];
+            int[] products = new int[rows];
+            int[] regions = new int[rows];
+            in.asDoubleBuffer().get(amounts);
+            in.position(in.position() + rows * 8);
+            in.asIntBuffer().get(ids).get(days).get(categories).get(products).get(regions);
+
+            List<SalesRecord> sales = new ArrayList<>(rows);
+            LocalDate date = null;
+            for (int row = 0; row < rows; row++) {
+                if (date == null || date.toEpochDay() != days[row]) {
+                    date = LocalDate.ofEpochDay(days[row]); // Consecutive rows usually share a day
+                }
+                sales.add(new SalesRecord(ids[row], date, categoryValues[categories[row]],
+                        productValues[products[row]], regionValues[regions[row]], amounts[row]));
+            }
+            return sales;
+        } catch (RuntimeException e) {
+            // Out-of-range lengths or codes; only possible if the checksum missed the damage
+            throw new CorruptSnapshotException("Unreadable snapshot: " + e);
+        }
+    }
+
+    // Numbers the distinct values of a dimension in order of first appearance; null stays null
+    private static List<byte[]> encode(List<SalesRecord> sales, SalesDimension dimension, int[] codes) {
+        ColumnDictionary dictionary = new ColumnDictionary();
+        for (int row = 0; row < codes.length; row++) {
+            codes[row] = dictionary.encode(dimension.of(sales.get(row)));
+        }
+        List<byte[]> values = new ArrayList<>(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            String value = dictionary.decode(code);
+            values.add(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static long dictionaryBytes(List<byte[]> values) {
+        long bytes = 4;
+        for (byte[] value : values) {
+            bytes += 4 + (value == null ? 0 : value.length);
+        }
+        return bytes;
+    }
+
+    private static void writeDictionary(ByteBuffer out, List<byte[]> values) {
+        out.putInt(values.size());
+        for (byte[] value : values) {
+            if (value == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(value.length);
+                out.put(value);
+            }
+        }
+    }
+
+    // The values of the snapshot's codes, each decoded once
+    private static String[] readDictionary(ByteBuffer in) throws CorruptSnapshotException {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / 4) {
+            throw new CorruptSnapshotException("Bad dictionary size: " + count); // Every value takes at least 4 bytes
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < values.length; i++) {
+            int length = in.getInt();
+            if (length >= 0) {
+                byte[] value = new byte[length];
+                in.get(value);
+                values[i] = new String(value, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+
+    private static int checksum(ByteBuffer file, long fileSize) {
+        CRC32C crc = new CRC32C();
+        crc.update(file.duplicate().position(HEADER_BYTES).limit((int) fileSize));
+        return (int) crc.getValue();
+    }
+
+    private static long align8(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
@@ -0,0 +1,60 @@
+package com.assignment.assignment2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * The k highest-value sales seen so far, kept in a min-heap of at most k entries.
+ * <p>
+ * The root is the smallest of the current top k, so a new sale is compared once and
+ * only replaces it when strictly greater: one pass costs O(n log k) and O(k) memory,
+ * instead of sorting the whole dataset. On ties the sale seen first is kept, like
+ * {@link SalesAnalysisService#findHighestValueSale()}. Not thread-safe; use one per
+ * thread and {@link #merge} them.
+ */
+final class TopK implements Consumer<SalesRecord> {
+
+    private static final Comparator<SalesRecord> BY_AMOUNT = Comparator.comparingDouble(SalesRecord::getAmount);
+
+    private final int k;
+    private final PriorityQueue<SalesRecord> heap;
+
+    TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), BY_AMOUNT);
+    }
+
+    @Override
+    public void accept(SalesRecord sale) {
+        if (heap.size() < k) {
+            heap.add(sale);
+        } else if (k > 0 && sale.getAmount() > heap.peek().getAmount()) {
+            heap.poll();
+            heap.add(sale);
+        }
+    }
+
+    /**
+     * @param other The top k of sales that come after this one's; it is not modified.
+     * @return This instance, now holding the top k of both.
+     */
+    TopK merge(TopK other) {
+        other.heap.forEach(this);
+        return this;
+    }
+
+    /**
+     * @return The kept sales, highest amount first.
+     */
+    List<SalesRecord> toList() {
+        List<SalesRecord> result = new ArrayList<>(heap);
+        result.sort(BY_AMOUNT.reversed());
+        return result;
+    }
+}